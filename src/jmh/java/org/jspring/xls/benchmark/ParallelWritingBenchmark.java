@@ -0,0 +1,76 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.utils.BufferPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a multi-sheet streaming workbook with its sheets rendered one after the other
+ * or in parallel. The rows are streamed to the temporary files before each invocation, outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelWritingBenchmark {
+
+    private static final int SHEETS = 8;
+
+    @Param({"10000", "100000"})
+    private int rowsPerSheet;
+
+    @Param({"1", "4"})
+    private int writeParallelism;
+
+    private XlsxWritingService writingService;
+    private SXSSFWorkbook workbook;
+
+    @Setup(Level.Trial)
+    public void setUpService() {
+        writingService = new XlsxWritingService(
+                WriteMode.STREAMING, SXSSFWorkbook.DEFAULT_WINDOW_SIZE, false, new BufferPool(), writeParallelism
+        );
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpWorkbook() {
+        workbook = writingService.toStreamingWorkbook(new XSSFWorkbook());
+        for (int sheetNumber = 0; sheetNumber < SHEETS; sheetNumber++) {
+            Sheet sheet = workbook.createSheet(Workloads.SHEET_NAME + sheetNumber);
+            for (int rowNumber = 0; rowNumber < rowsPerSheet; rowNumber++) {
+                Row row = sheet.createRow(rowNumber);
+                for (int column = 0; column < Workloads.COLUMNS; column++) {
+                    row.createCell(column).setCellValue(rowNumber * column);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownWorkbook() {
+        workbook.dispose();
+    }
+
+    @Benchmark
+    public SXSSFWorkbook writeTo() {
+        writingService.writeTo(workbook, OutputStream.nullOutputStream());
+        return workbook;
+    }
+
+}
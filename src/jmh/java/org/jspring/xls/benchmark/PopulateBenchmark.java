@@ -0,0 +1,91 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.CellSearch;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxTableService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Measures filling an empty sheet with {@link XlsxCellsWritingService#writeTopToBottom(SheetInfo, StartPoint, TableData)}
+ * and {@link XlsxTableService#populateWorksheetWithData(CellSearch, int, List)}, the latter also from a lazy
+ * stream generating the values while they are written.
+ * The workbook is recreated before each invocation, outside the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class PopulateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int cells;
+
+    private final XlsxCellsWritingService cellsWritingService = new XlsxCellsWritingService();
+    private final XlsxTableService tableService = new XlsxTableService();
+
+    private List<String> values;
+    private XSSFWorkbook workbook;
+    private SheetInfo sheetInfo;
+
+    @Setup(Level.Trial)
+    public void setUpValues() {
+        values = Workloads.values(cells);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpWorkbook() {
+        workbook = new XSSFWorkbook();
+        workbook.createSheet(Workloads.SHEET_NAME);
+        sheetInfo = new SheetInfo(workbook, Workloads.SHEET_NAME);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownWorkbook() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public XSSFWorkbook writeTopToBottom() {
+        cellsWritingService.writeTopToBottom(
+                sheetInfo,
+                new StartPoint(0, 0),
+                new TableData<>(values, cells / Workloads.COLUMNS, Workloads.COLUMNS)
+        );
+        return workbook;
+    }
+
+    @Benchmark
+    public Workbook populateWorksheetWithData() {
+        return tableService.populateWorksheetWithData(
+                new CellSearch<>(sheetInfo, new CellCoordinates<>(0, 0, null, null)),
+                Workloads.COLUMNS,
+                values
+        );
+    }
+
+    @Benchmark
+    public Workbook populateWorksheetWithStream() {
+        return tableService.populateWorksheetWithData(
+                new CellSearch<>(sheetInfo, new CellCoordinates<>(0, 0, null, null)),
+                Workloads.COLUMNS,
+                IntStream.range(0, cells).mapToObj(i -> "value-" + i)
+        );
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.service.XlsxReadingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Measures {@link XlsxReadingService#readFromTemplate(String)} on template files of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ReadingBenchmark {
+
+    @Param({"0", "1000", "10000"})
+    private int rows;
+
+    private XlsxReadingService readingService;
+    private File template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (rows == 0) {
+            template = new File(Workloads.TEMPLATE_PATH);
+        } else {
+            template = File.createTempFile("template-" + rows, ".xlsx");
+            try (XSSFWorkbook workbook = Workloads.workbook(rows);
+                 FileOutputStream out = new FileOutputStream(template)) {
+                workbook.write(out);
+            }
+        }
+        readingService = new XlsxReadingService(template.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (rows != 0) {
+            template.delete();
+        }
+    }
+
+    @Benchmark
+    public XSSFWorkbook readFromTemplate() {
+        return readingService.readFromTemplate();
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.CellSearch;
+import org.jspring.xls.domain.SheetInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Measures {@link CellSearch#search()} for a value found in the first row, a value found in the last
+ * cell of the sheet and a fixed coordinate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private XSSFWorkbook workbook;
+    private CellSearch<String> firstRow;
+    private CellSearch<String> lastCell;
+    private CellSearch<Object> coordinates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = Workloads.workbook(rows);
+        SheetInfo sheetInfo = new SheetInfo(workbook, Workloads.SHEET_NAME);
+        firstRow = new CellSearch<>(sheetInfo, new CellCoordinates<>(-1, -1, "text-0-1", null));
+        lastCell = new CellSearch<>(sheetInfo, new CellCoordinates<>(-1, -1, "last", null));
+        coordinates = new CellSearch<>(sheetInfo, new CellCoordinates<>(rows / 2, 3, null, null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public Optional<Cell> searchFirstRow() {
+        return firstRow.search();
+    }
+
+    @Benchmark
+    public Optional<Cell> searchLastCell() {
+        return lastCell.search();
+    }
+
+    @Benchmark
+    public Optional<Cell> searchByCoordinates() {
+        return coordinates.search();
+    }
+
+}
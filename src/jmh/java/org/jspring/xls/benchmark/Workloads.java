@@ -0,0 +1,49 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the workloads shared by the benchmarks.
+ */
+final class Workloads {
+
+    static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    static final String SHEET_NAME = "Data";
+    static final int COLUMNS = 10;
+
+    private Workloads() {
+    }
+
+    /**
+     * Creates a workbook with a sheet of {@code rows} rows of {@link #COLUMNS} cells, alternating
+     * numbers and texts, with the text {@code "last"} in the last cell.
+     */
+    static XSSFWorkbook workbook(int rows) {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+        for (int r = 0; r < rows; r++) {
+            Row row = sheet.createRow(r);
+            for (int c = 0; c < COLUMNS; c++) {
+                if (c % 2 == 0) {
+                    row.createCell(c).setCellValue(r * COLUMNS + c);
+                } else {
+                    row.createCell(c).setCellValue("text-" + r + "-" + c);
+                }
+            }
+        }
+        sheet.getRow(rows - 1).createCell(COLUMNS - 1).setCellValue("last");
+        return workbook;
+    }
+
+    static List<String> values(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "value-" + i)
+                .toList();
+    }
+
+}
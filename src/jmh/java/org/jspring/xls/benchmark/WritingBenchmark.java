@@ -0,0 +1,45 @@
+package org.jspring.xls.benchmark;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.service.XlsxWritingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * Measures the serialization of a workbook with {@link XlsxWritingService#writeAsByteArray(XSSFWorkbook)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class WritingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private final XlsxWritingService writingService = new XlsxWritingService();
+    private XSSFWorkbook workbook;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = Workloads.workbook(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public byte[] writeAsByteArray() {
+        return writingService.writeAsByteArray(workbook);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.jspring.xls.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a record component, a field or a getter to a column of an exported table.
+ * Columns are ordered by {@link #order()}, then in declaration order.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.RECORD_COMPONENT, ElementType.FIELD, ElementType.METHOD})
+public @interface XlsColumn {
+
+    /**
+     * The header of the column, the name of the property when empty.
+     */
+    String header() default "";
+
+    /**
+     * The position of the column, columns with the same order keep their declaration order.
+     */
+    int order() default Integer.MAX_VALUE;
+
+}
@@ -4,7 +4,12 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.jspring.xls.domain.CellSearch;
 import org.jspring.xls.domain.TableData;
 import org.jspring.xls.enums.CellFilter;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.writer.ZipCompression;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Predicate;
 
 public class WorkbookOperation {
@@ -18,7 +23,10 @@ public class WorkbookOperation {
     private final CellSearch<?> cellSearch;
     private final String searchFor;
     private final Predicate<Cell> filter;
-
+    private final WriteMode writeMode;
+    private final StringStrategy stringStrategy;
+    private final Map<Integer, StringStrategy> columnStringStrategies;
+    private final ZipCompression compression;
 
     // Private constructor using Builder
     private WorkbookOperation(Builder builder) {
@@ -31,6 +39,10 @@ public class WorkbookOperation {
         this.cellSearch = builder.cellSearch;
         this.searchFor = builder.searchFor;
         this.filter = builder.filter;
+        this.writeMode = builder.writeMode;
+        this.stringStrategy = builder.stringStrategy;
+        this.columnStringStrategies = Map.copyOf(builder.columnStringStrategies);
+        this.compression = builder.compression;
     }
 
     // Static method to get a builder instance
@@ -75,6 +87,22 @@ public class WorkbookOperation {
         return filter;
     }
 
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    public StringStrategy getStringStrategy() {
+        return stringStrategy;
+    }
+
+    public Map<Integer, StringStrategy> getColumnStringStrategies() {
+        return columnStringStrategies;
+    }
+
+    public ZipCompression getCompression() {
+        return compression;
+    }
+
 
     // Builder class
     public static class Builder {
@@ -87,6 +115,10 @@ public class WorkbookOperation {
         private Predicate<Cell> filter;
         private int startRow;
         private int startColumn;
+        private WriteMode writeMode;
+        private StringStrategy stringStrategy;
+        private final Map<Integer, StringStrategy> columnStringStrategies = new HashMap<>();
+        private ZipCompression compression;
 
         // Private constructor to enforce use of factory method
         private Builder(String templatePath) {
@@ -133,6 +165,27 @@ public class WorkbookOperation {
             return this;
         }
 
+        public Builder writeMode(WriteMode writeMode) {
+            this.writeMode = writeMode;
+            return this;
+        }
+
+        public Builder stringStrategy(StringStrategy stringStrategy) {
+            this.stringStrategy = stringStrategy;
+            return this;
+        }
+
+        // The column is the index of the column in the table data, not in the sheet
+        public Builder stringStrategy(int column, StringStrategy stringStrategy) {
+            this.columnStringStrategies.put(column, stringStrategy);
+            return this;
+        }
+
+        public Builder compression(ZipCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
         public WorkbookOperation build() {
             return new WorkbookOperation(this);
         }
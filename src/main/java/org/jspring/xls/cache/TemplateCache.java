@@ -0,0 +1,107 @@
+package org.jspring.xls.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of template files kept as raw bytes.
+ * Each lookup compares the last modified time and the size of the file with the cached entry,
+ * so a template replaced on disk is read again on the next request.
+ * The cached bytes are shared and must not be modified by the callers.
+ */
+public class TemplateCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    private final Map<String, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TemplateCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TemplateCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The template cache must hold at least one entry");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) {
+                    evictions++;
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the content of a template, reading it from disk if it is not cached or has changed.
+     *
+     * @param templatePath The path of the template file.
+     * @return The content of the template file.
+     * @throws IOException if the file cannot be read.
+     */
+    public byte[] get(String templatePath) throws IOException {
+        Path path = Path.of(templatePath).toAbsolutePath().normalize();
+        String key = path.toString();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.matches(attributes)) {
+                hits++;
+                return entry.content();
+            }
+            misses++;
+        }
+
+        // Read outside the lock so that a slow disk does not block the lookups of other templates
+        byte[] content = Files.readAllBytes(path);
+        synchronized (this) {
+            entries.put(key, new Entry(attributes.lastModifiedTime(), attributes.size(), content));
+        }
+        return content;
+    }
+
+    /**
+     * Removes a template from the cache.
+     *
+     * @param templatePath The path of the template file.
+     */
+    public synchronized void invalidate(String templatePath) {
+        entries.remove(Path.of(templatePath).toAbsolutePath().normalize().toString());
+    }
+
+    /**
+     * Removes all the templates from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the usage statistics of the cache.
+     *
+     * @return A snapshot of the current statistics.
+     */
+    public synchronized TemplateCacheStats stats() {
+        return new TemplateCacheStats(hits, misses, evictions, entries.size());
+    }
+
+    private record Entry(FileTime lastModifiedTime, long size, byte[] content) {
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModifiedTime.equals(attributes.lastModifiedTime());
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.jspring.xls.cache;
+
+/**
+ * Represents a snapshot of the usage statistics of a {@link TemplateCache}.
+ *
+ * @param hits      The number of lookups served from the cache.
+ * @param misses    The number of lookups that had to read the file, including stale entries.
+ * @param evictions The number of entries removed to respect the maximum size.
+ * @param size      The number of templates currently cached.
+ */
+public record TemplateCacheStats(long hits, long misses, long evictions, int size) {
+
+    /**
+     * Computes the ratio of lookups served from the cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if the cache has not been used yet.
+     */
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
@@ -0,0 +1,230 @@
+package org.jspring.xls.cache;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A pool of parsed workbooks, ready to be handed out, kept for each of the most recently used templates.
+ * Each checkout takes a workbook from the pool of its template and refills the pool in the background, so the
+ * cost of parsing a template is paid off the request thread. When the pool of a template is empty, the workbook
+ * is parsed on the calling thread.
+ * <p>
+ * A checked out workbook belongs to the caller, it is never returned to the pool. The pooled workbooks of a
+ * template are dropped when the last modified time or the size of the file changes, as in {@link TemplateCache}.
+ */
+public class WorkbookPool implements AutoCloseable {
+
+    public static final int DEFAULT_SIZE = 2;
+    public static final int DEFAULT_MAX_TEMPLATES = 4;
+
+    private final Function<String, XSSFWorkbook> loader;
+    private final int size;
+    private final Map<String, Slot> slots;
+    private final ExecutorService refillExecutor;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refillFailures = new AtomicLong();
+
+    /**
+     * Creates a pool refilled by a single background thread.
+     *
+     * @param loader       Parses a new workbook from the path of its template.
+     * @param size         The number of workbooks kept ready for each template.
+     * @param maxTemplates The maximum number of pooled templates, the least recently used is dropped first.
+     */
+    public WorkbookPool(Function<String, XSSFWorkbook> loader, int size, int maxTemplates) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The workbook pool must hold at least one workbook per template");
+        }
+        if (maxTemplates < 1) {
+            throw new IllegalArgumentException("The workbook pool must hold at least one template");
+        }
+        this.loader = loader;
+        this.size = size;
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest) {
+                boolean evict = size() > maxTemplates;
+                if (evict) {
+                    eldest.getValue().discard();
+                }
+                return evict;
+            }
+        };
+        this.refillExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "xlsx-workbook-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a workbook of a template from the pool, or parses it if none is ready, and refills the pool
+     * of the template in the background.
+     *
+     * @param templatePath The path of the template file.
+     * @return A workbook read from the template, owned by the caller.
+     * @throws RuntimeException if the template cannot be read.
+     */
+    public XSSFWorkbook checkout(String templatePath) {
+        Slot slot = slotOf(templatePath);
+        XSSFWorkbook workbook = slot.ready.poll();
+        if (workbook != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            workbook = loader.apply(templatePath);
+        }
+        refill(slot, templatePath);
+        return workbook;
+    }
+
+    /**
+     * Fills the pool of a template in the background, e.g. at startup before the template is first used.
+     *
+     * @param templatePath The path of the template file.
+     * @throws RuntimeException if the attributes of the template file cannot be read.
+     */
+    public void prewarm(String templatePath) {
+        refill(slotOf(templatePath), templatePath);
+    }
+
+    /**
+     * Drops the pooled workbooks of a template.
+     *
+     * @param templatePath The path of the template file.
+     */
+    public void invalidate(String templatePath) {
+        Slot slot;
+        synchronized (this) {
+            slot = slots.remove(keyOf(Path.of(templatePath)));
+        }
+        if (slot != null) {
+            slot.discard();
+        }
+    }
+
+    /**
+     * Returns the usage statistics of the pool.
+     *
+     * @return A snapshot of the current statistics.
+     */
+    public synchronized WorkbookPoolStats stats() {
+        int pooled = slots.values().stream()
+                .mapToInt(slot -> slot.ready.size())
+                .sum();
+        return new WorkbookPoolStats(hits.get(), misses.get(), refillFailures.get(), pooled);
+    }
+
+    /**
+     * Stops the refills and drops the pooled workbooks.
+     */
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+        synchronized (this) {
+            slots.values().forEach(Slot::discard);
+            slots.clear();
+        }
+    }
+
+    private Slot slotOf(String templatePath) {
+        Path path = Path.of(templatePath);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        String key = keyOf(path);
+        synchronized (this) {
+            Slot slot = slots.get(key);
+            if (slot != null && slot.matches(attributes)) {
+                return slot;
+            }
+            if (slot != null) {
+                slot.discard();
+            }
+            // A new slot, so that a refill of the previous version cannot pool stale workbooks
+            Slot refreshed = new Slot(attributes.lastModifiedTime(), attributes.size(), size);
+            slots.put(key, refreshed);
+            return refreshed;
+        }
+    }
+
+    private void refill(Slot slot, String templatePath) {
+        if (!slot.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    while (!slot.discarded && slot.ready.remainingCapacity() > 0) {
+                        slot.ready.offer(loader.apply(templatePath));
+                    }
+                } catch (RuntimeException e) {
+                    // The next checkout parses the template on its own thread and reports the error
+                    refillFailures.incrementAndGet();
+                    slot.refilling.set(false);
+                    return;
+                }
+                slot.refilling.set(false);
+                // A checkout may have been served after the last check, while this refill was still running
+                if (!slot.discarded && slot.ready.remainingCapacity() > 0) {
+                    refill(slot, templatePath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The pool is closed, the checkouts keep parsing the templates on their own thread
+            slot.refilling.set(false);
+        }
+    }
+
+    private static String keyOf(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * The workbooks ready for one version of a template.
+     */
+    private static final class Slot {
+
+        private final FileTime lastModifiedTime;
+        private final long fileSize;
+        private final BlockingQueue<XSSFWorkbook> ready;
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile boolean discarded;
+
+        private Slot(FileTime lastModifiedTime, long fileSize, int capacity) {
+            this.lastModifiedTime = lastModifiedTime;
+            this.fileSize = fileSize;
+            this.ready = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return fileSize == attributes.size() && lastModifiedTime.equals(attributes.lastModifiedTime());
+        }
+
+        void discard() {
+            discarded = true;
+            ready.clear();
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.jspring.xls.cache;
+
+/**
+ * Represents a snapshot of the usage statistics of a {@link WorkbookPool}.
+ *
+ * @param hits           The number of checkouts served with a pooled workbook.
+ * @param misses         The number of checkouts that had to parse the template on the calling thread.
+ * @param refillFailures The number of background refills stopped by an error.
+ * @param pooled         The number of workbooks currently ready, all templates included.
+ */
+public record WorkbookPoolStats(long hits, long misses, long refillFailures, int pooled) {
+
+    /**
+     * Computes the ratio of checkouts served from the pool.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if the pool has not been used yet.
+     */
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
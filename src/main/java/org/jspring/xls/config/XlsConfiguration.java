@@ -1,40 +1,362 @@
 package org.jspring.xls.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.WorkbookPool;
+import org.jspring.xls.metrics.InstrumentedXlsOperationService;
+import org.jspring.xls.metrics.InstrumentedXlsxCellsWritingService;
+import org.jspring.xls.metrics.InstrumentedXlsxReadingService;
+import org.jspring.xls.metrics.InstrumentedXlsxSearchingService;
+import org.jspring.xls.metrics.InstrumentedXlsxWritingService;
+import org.jspring.xls.metrics.XlsMetrics;
+import org.jspring.xls.reactive.ReactiveXlsxWritingService;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxCellsWritingService;
 import org.jspring.xls.service.XlsxReadingService;
 import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxStyleService;
 import org.jspring.xls.service.XlsxTableService;
 import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.utils.BufferPool;
+import org.jspring.xls.warmup.XlsWarmupRunner;
+import org.jspring.xls.web.WorkbookHttpMessageConverter;
+import org.jspring.xls.web.XlsxStreamingResponseFactory;
+import org.jspring.xls.writer.DeflaterPool;
+import org.jspring.xls.writer.SheetRenderPool;
+import org.jspring.xls.writer.ZipCompression;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
-@AutoConfiguration
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"
+})
 @EnableConfigurationProperties(XlsProperties.class)
+@ImportRuntimeHints(XlsRuntimeHints.class)
 //@ConditionalOnClass(CellWrapper.class)
 public class XlsConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public XlsxReadingService readingService(XlsProperties properties) {
-        return new XlsxReadingService(properties.templatePath());
+    @ConditionalOnProperty(prefix = "spring.export.xlsx.cache", name = "enabled", havingValue = "true")
+    public TemplateCache templateCache(XlsProperties properties) {
+        return new TemplateCache(properties.cache().maxEntries());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "spring.export.xlsx.pool", name = "enabled", havingValue = "true")
+    public WorkbookPool workbookPool(XlsProperties properties, ObjectProvider<TemplateCache> templateCache) {
+        // The pool parses the templates with a reading service of its own, which does not use the pool
+        XlsxReadingService loader = new XlsxReadingService(properties.templatePath(), templateCache.getIfAvailable());
+        WorkbookPool workbookPool = new WorkbookPool(
+                loader::readFromTemplate,
+                properties.pool().size(),
+                properties.pool().maxTemplates()
+        );
+        if (Files.isRegularFile(Path.of(properties.templatePath()))) {
+            workbookPool.prewarm(properties.templatePath());
+        }
+        return workbookPool;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public XlsxReadingService readingService(
+            XlsProperties properties,
+            ObjectProvider<TemplateCache> templateCache,
+            ObjectProvider<WorkbookPool> workbookPool
+    ) {
+        return new XlsxReadingService(
+                properties.templatePath(),
+                templateCache.getIfAvailable(),
+                workbookPool.getIfAvailable()
+        );
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public DeflaterPool deflaterPool(XlsProperties properties) {
+        return new DeflaterPool(properties.compression().threads());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public SheetRenderPool sheetRenderPool(XlsProperties properties) {
+        return new SheetRenderPool(properties.streaming().renderThreads());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public XlsxWritingService writingService(
+            XlsProperties properties,
+            DeflaterPool deflaterPool,
+            SheetRenderPool sheetRenderPool
+    ) {
+        configureTempDirectory(properties.streaming());
+        return new XlsxWritingService(
+                properties.writeMode(),
+                properties.streaming().rowAccessWindowSize(),
+                properties.streaming().compressTempFiles(),
+                bufferPool(properties.output()),
+                properties.streaming().writeParallelism(),
+                zipCompression(properties.compression()),
+                deflaterPool,
+                sheetRenderPool
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public XlsxSearchingService searchingService(XlsProperties properties) {
+        return new XlsxSearchingService(properties.search().indexEnabled());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public XlsxTableService tableService(XlsxStyleService styleService) {
+        return new XlsxTableService(styleService);
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public XlsxWritingService writingService() {
-        return new XlsxWritingService();
+    public XlsxStyleService styleService() {
+        return new XlsxStyleService();
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public XlsxSearchingService searchingService() {
-        return new XlsxSearchingService();
+    public XlsxCellsWritingService cellsWritingService(XlsProperties properties, XlsxStyleService styleService) {
+        return new XlsxCellsWritingService(
+                properties.strings().strategy(),
+                properties.strings().streamingStrategy(),
+                styleService
+        );
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public XlsxTableService tableService() {
-        return new XlsxTableService();
+    public XlsOperationService operationService(
+            XlsProperties properties,
+            XlsxReadingService readingService,
+            XlsxWritingService writingService,
+            XlsxCellsWritingService cellsWritingService,
+            XlsxSearchingService searchingService
+    ) {
+        return new XlsOperationService(
+                readingService,
+                writingService,
+                cellsWritingService,
+                searchingService,
+                properties.batch().parallelism(),
+                properties.batch().virtualThreads()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "spring.export.xlsx.warmup", name = "enabled", havingValue = "true")
+    public XlsWarmupRunner warmupRunner(
+            XlsProperties properties,
+            XlsxReadingService readingService,
+            XlsxSearchingService searchingService,
+            XlsxCellsWritingService cellsWritingService,
+            XlsxWritingService writingService
+    ) {
+        List<String> templates = properties.warmup().templates();
+        return new XlsWarmupRunner(
+                templates.isEmpty() ? List.of(properties.templatePath()) : templates,
+                properties.warmup().iterations(),
+                readingService,
+                searchingService,
+                cellsWritingService,
+                writingService
+        );
+    }
+
+    private static void configureTempDirectory(XlsProperties.Streaming streaming) {
+        if (streaming.tempDirectory() != null) {
+            // POI resolves the directory of the SXSSF temporary files globally
+            TempFile.setTempFileCreationStrategy(
+                    new DefaultTempFileCreationStrategy(new File(streaming.tempDirectory()))
+            );
+        }
+    }
+
+    private static BufferPool bufferPool(XlsProperties.Output output) {
+        return new BufferPool(output.bufferSize(), output.maxPooledBuffers());
+    }
+
+    private static ZipCompression zipCompression(XlsProperties.Compression compression) {
+        return new ZipCompression(
+                compression.level(),
+                compression.storedThreshold(),
+                compression.parallelism(),
+                compression.blockSize()
+        );
+    }
+
+    /**
+     * Registers the reactive writer when Reactor is on the classpath, e.g. in a WebFlux application.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Flux.class)
+    static class XlsReactiveConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveXlsxWritingService reactiveWritingService(
+                XlsProperties properties,
+                XlsxStyleService styleService
+        ) {
+            configureTempDirectory(properties.streaming());
+            return new ReactiveXlsxWritingService(
+                    properties.streaming().rowAccessWindowSize(),
+                    properties.output().bufferSize(),
+                    styleService
+            );
+        }
+    }
+
+    /**
+     * Registers the streaming responses of Spring MVC applications. The message converter is picked up by the
+     * {@code HttpMessageConverters} of Spring Boot, ahead of the default converters.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(StreamingResponseBody.class)
+    static class XlsWebMvcConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsxStreamingResponseFactory streamingResponseFactory(
+                XlsxWritingService writingService,
+                XlsOperationService operationService
+        ) {
+            return new XlsxStreamingResponseFactory(writingService, operationService);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public WorkbookHttpMessageConverter workbookHttpMessageConverter(
+                XlsxWritingService writingService,
+                XlsOperationService operationService
+        ) {
+            return new WorkbookHttpMessageConverter(writingService, operationService);
+        }
+    }
+
+    /**
+     * Replaces the services with instrumented ones publishing their timings and volumes
+     * when a {@link MeterRegistry} is available.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    static class XlsMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsMetrics xlsMetrics(MeterRegistry meterRegistry) {
+            return new XlsMetrics(meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsxReadingService instrumentedReadingService(
+                XlsProperties properties,
+                ObjectProvider<TemplateCache> templateCache,
+                ObjectProvider<WorkbookPool> workbookPool,
+                XlsMetrics metrics
+        ) {
+            return new InstrumentedXlsxReadingService(
+                    properties.templatePath(),
+                    templateCache.getIfAvailable(),
+                    workbookPool.getIfAvailable(),
+                    metrics
+            );
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsxWritingService instrumentedWritingService(
+                XlsProperties properties,
+                DeflaterPool deflaterPool,
+                SheetRenderPool sheetRenderPool,
+                XlsMetrics metrics
+        ) {
+            configureTempDirectory(properties.streaming());
+            return new InstrumentedXlsxWritingService(
+                    properties.writeMode(),
+                    properties.streaming().rowAccessWindowSize(),
+                    properties.streaming().compressTempFiles(),
+                    bufferPool(properties.output()),
+                    properties.streaming().writeParallelism(),
+                    zipCompression(properties.compression()),
+                    deflaterPool,
+                    sheetRenderPool,
+                    metrics
+            );
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsxSearchingService instrumentedSearchingService(XlsProperties properties, XlsMetrics metrics) {
+            return new InstrumentedXlsxSearchingService(properties.search().indexEnabled(), metrics);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsxCellsWritingService instrumentedCellsWritingService(
+                XlsProperties properties,
+                XlsxStyleService styleService,
+                XlsMetrics metrics
+        ) {
+            return new InstrumentedXlsxCellsWritingService(
+                    properties.strings().strategy(),
+                    properties.strings().streamingStrategy(),
+                    styleService,
+                    metrics
+            );
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public XlsOperationService instrumentedOperationService(
+                XlsProperties properties,
+                XlsxReadingService readingService,
+                XlsxWritingService writingService,
+                XlsxCellsWritingService cellsWritingService,
+                XlsxSearchingService searchingService,
+                XlsMetrics metrics
+        ) {
+            return new InstrumentedXlsOperationService(
+                    readingService,
+                    writingService,
+                    cellsWritingService,
+                    searchingService,
+                    properties.batch().parallelism(),
+                    properties.batch().virtualThreads(),
+                    metrics
+            );
+        }
     }
 }
@@ -1,14 +1,270 @@
 package org.jspring.xls.config;
 
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.WorkbookPool;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.utils.BufferPool;
+import org.jspring.xls.warmup.XlsWarmupRunner;
+import org.jspring.xls.writer.ZipCompression;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.List;
+
 
 @ConfigurationProperties(prefix = "spring.export.xlsx")
-public record XlsProperties(String templatePath) {
+public record XlsProperties(String templatePath, WriteMode writeMode, Streaming streaming, Cache cache, Output output,
+                          Search search, Batch batch, Strings strings, Pool pool,
+                          Warmup warmup, Compression compression) {
 
     public static final String DEFAULT_TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
 
     public String templatePath() {
         return templatePath != null ? templatePath : DEFAULT_TEMPLATE_PATH;
     }
+
+    public WriteMode writeMode() {
+        return writeMode != null ? writeMode : WriteMode.IN_MEMORY;
+    }
+
+    public Streaming streaming() {
+        return streaming != null ? streaming : new Streaming(null, null, null, null, null);
+    }
+
+    public Cache cache() {
+        return cache != null ? cache : new Cache(null, null);
+    }
+
+    public Output output() {
+        return output != null ? output : new Output(null, null);
+    }
+
+    public Search search() {
+        return search != null ? search : new Search(null);
+    }
+
+    public Batch batch() {
+        return batch != null ? batch : new Batch(null, null);
+    }
+
+    public Strings strings() {
+        return strings != null ? strings : new Strings(null);
+    }
+
+    public Pool pool() {
+        return pool != null ? pool : new Pool(null, null, null);
+    }
+
+    public Warmup warmup() {
+        return warmup != null ? warmup : new Warmup(null, null, null);
+    }
+
+    public Compression compression() {
+        return compression != null ? compression : new Compression(null, null, null, null, null);
+    }
+
+    /**
+     * Settings used when a workbook is written in {@link WriteMode#STREAMING} mode.
+     *
+     * @param rowAccessWindowSize The number of rows kept in memory before they are flushed to disk.
+     * @param compressTempFiles   Whether the temporary sheet files are gzip compressed.
+     * @param tempDirectory       The directory for the temporary sheet files, the system default when not set.
+     * @param writeParallelism    The number of sheets rendered and compressed at the same time when a streaming
+     *                            workbook is written, 1 by default to write them one after the other.
+     * @param renderThreads       The number of threads rendering the sheets written in parallel, shared by all
+     *                            the writes, the number of processors by default.
+     */
+    public record Streaming(Integer rowAccessWindowSize, Boolean compressTempFiles, String tempDirectory,
+                            Integer writeParallelism, Integer renderThreads) {
+
+        public Integer rowAccessWindowSize() {
+            return rowAccessWindowSize != null ? rowAccessWindowSize : SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+        }
+
+        public Boolean compressTempFiles() {
+            return compressTempFiles != null ? compressTempFiles : Boolean.FALSE;
+        }
+
+        public Integer writeParallelism() {
+            return writeParallelism != null ? writeParallelism : 1;
+        }
+
+        public Integer renderThreads() {
+            return renderThreads != null ? renderThreads : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Settings of the cache of the template files.
+     *
+     * @param enabled    Whether the templates are cached, disabled by default.
+     * @param maxEntries The maximum number of cached templates, the least recently used is evicted first.
+     */
+    public record Cache(Boolean enabled, Integer maxEntries) {
+
+        public Boolean enabled() {
+            return enabled != null ? enabled : Boolean.FALSE;
+        }
+
+        public Integer maxEntries() {
+            return maxEntries != null ? maxEntries : TemplateCache.DEFAULT_MAX_ENTRIES;
+        }
+    }
+
+    /**
+     * Settings of the buffers used to write the workbooks to files, streams and channels.
+     *
+     * @param bufferSize       The size in bytes of each output buffer.
+     * @param maxPooledBuffers The maximum number of idle buffers kept for reuse.
+     */
+    public record Output(Integer bufferSize, Integer maxPooledBuffers) {
+
+        public Integer bufferSize() {
+            return bufferSize != null ? bufferSize : BufferPool.DEFAULT_BUFFER_SIZE;
+        }
+
+        public Integer maxPooledBuffers() {
+            return maxPooledBuffers != null ? maxPooledBuffers : BufferPool.DEFAULT_MAX_POOLED_BUFFERS;
+        }
+    }
+
+    /**
+     * Settings of the searches of cells by value.
+     *
+     * @param indexEnabled Whether each searched sheet is indexed by value once, instead of being scanned
+     *                     on every search. Disabled by default.
+     */
+    public record Search(Boolean indexEnabled) {
+
+        public Boolean indexEnabled() {
+            return indexEnabled != null ? indexEnabled : Boolean.FALSE;
+        }
+    }
+
+    /**
+     * Settings of the batches of operations.
+     *
+     * @param parallelism    The maximum number of operations executed at the same time, the number of processors by default.
+     * @param virtualThreads Whether the operations run on virtual threads instead of platform threads. Disabled by default.
+     */
+    public record Batch(Integer parallelism, Boolean virtualThreads) {
+
+        public Integer parallelism() {
+            return parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
+        }
+
+        public Boolean virtualThreads() {
+            return virtualThreads != null ? virtualThreads : Boolean.FALSE;
+        }
+    }
+
+    /**
+     * Settings of the storage of the texts written to the cells.
+     *
+     * @param strategy The default strategy of the writes, {@link StringStrategy#SHARED} by default. Streaming writes
+     *                 only use it when it is set, they store their texts inline otherwise.
+     */
+    public record Strings(StringStrategy strategy) {
+
+        public StringStrategy strategy() {
+            return strategy != null ? strategy : StringStrategy.SHARED;
+        }
+
+        /**
+         * Returns the default strategy of the streaming writes, {@link StringStrategy#INLINE} unless a strategy is set,
+         * so that the shared strings table does not keep every streamed text in memory.
+         *
+         * @return The default strategy of the streaming writes.
+         */
+        public StringStrategy streamingStrategy() {
+            return strategy != null ? strategy : StringStrategy.INLINE;
+        }
+    }
+
+    /**
+     * Settings of the pool of parsed template workbooks.
+     *
+     * @param enabled      Whether the template workbooks are taken from a pool refilled in the background,
+     *                     disabled by default.
+     * @param size         The number of workbooks kept ready for each template.
+     * @param maxTemplates The maximum number of pooled templates, the least recently used is dropped first.
+     */
+    public record Pool(Boolean enabled, Integer size, Integer maxTemplates) {
+
+        public Boolean enabled() {
+            return enabled != null ? enabled : Boolean.FALSE;
+        }
+
+        public Integer size() {
+            return size != null ? size : WorkbookPool.DEFAULT_SIZE;
+        }
+
+        public Integer maxTemplates() {
+            return maxTemplates != null ? maxTemplates : WorkbookPool.DEFAULT_MAX_TEMPLATES;
+        }
+    }
+
+    /**
+     * Settings of the warm-up run at startup, before the application accepts traffic.
+     *
+     * @param enabled    Whether the templates are read, searched, written and serialized at startup, disabled by default.
+     * @param templates  The templates to warm up, the default template when not set.
+     * @param iterations The number of warm-up cycles run on each template.
+     */
+    public record Warmup(Boolean enabled, List<String> templates, Integer iterations) {
+
+        public Boolean enabled() {
+            return enabled != null ? enabled : Boolean.FALSE;
+        }
+
+        public List<String> templates() {
+            return templates != null ? templates : List.of();
+        }
+
+        public Integer iterations() {
+            return iterations != null ? iterations : XlsWarmupRunner.DEFAULT_ITERATIONS;
+        }
+    }
+
+    /**
+     * Settings of the compression of the parts of the written packages, which can be overridden by each operation.
+     *
+     * @param level           The DEFLATE level, from 0 to 9, or -1 for the default level of POI.
+     * @param storedThreshold The size in bytes under which a part is stored without compression, 0 by default
+     *                        to compress every part.
+     * @param parallelism     The number of blocks of a large part compressed at the same time, 1 by default to
+     *                        compress each part on the writing thread.
+     * @param blockSize       The size in bytes of the blocks compressed in parallel.
+     * @param threads         The number of threads compressing blocks, shared by all the writes, the number of
+     *                        processors by default.
+     */
+    public record Compression(
+            Integer level,
+            Integer storedThreshold,
+            Integer parallelism,
+            Integer blockSize,
+            Integer threads
+    ) {
+
+        public Integer level() {
+            return level != null ? level : ZipCompression.DEFAULT.level();
+        }
+
+        public Integer storedThreshold() {
+            return storedThreshold != null ? storedThreshold : ZipCompression.DEFAULT.storedThreshold();
+        }
+
+        public Integer parallelism() {
+            return parallelism != null ? parallelism : ZipCompression.DEFAULT.parallelism();
+        }
+
+        public Integer blockSize() {
+            return blockSize != null ? blockSize : ZipCompression.DEFAULT_BLOCK_SIZE;
+        }
+
+        public Integer threads() {
+            return threads != null ? threads : Runtime.getRuntime().availableProcessors();
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package org.jspring.xls.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The runtime hints of the reflection and resources POI uses to read and write xlsx workbooks, registered
+ * for Spring AOT and native images.
+ * <p>
+ * POI parses the parts of a package with XMLBeans, which loads the compiled schema type systems from
+ * {@code .xsb} resources and instantiates the XML types by reflection. Only the schemas of spreadsheet
+ * packages are registered, not the word processing and presentation ones, and the classes are listed from
+ * the classpath at build time rather than hand-written.
+ */
+public class XlsRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * The packages of the XML types of the parts of a spreadsheet package: workbook, sheets, styles, shared
+     * strings, theme, drawings, comments and document properties.
+     */
+    static final List<String> SCHEMA_PACKAGES = List.of(
+            "org.openxmlformats.schemas.spreadsheetml.x2006.main",
+            "org.openxmlformats.schemas.drawingml.x2006.main",
+            "org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing",
+            "org.openxmlformats.schemas.drawingml.x2006.chart",
+            "org.openxmlformats.schemas.officeDocument.x2006.sharedTypes",
+            "org.openxmlformats.schemas.officeDocument.x2006.relationships",
+            "org.openxmlformats.schemas.officeDocument.x2006.extendedProperties",
+            "org.openxmlformats.schemas.officeDocument.x2006.customProperties",
+            "org.openxmlformats.schemas.officeDocument.x2006.docPropsVTypes",
+            "com.microsoft.schemas.vml",
+            "com.microsoft.schemas.office.office",
+            "com.microsoft.schemas.office.excel"
+    );
+
+    static final List<String> TYPE_SYSTEM_HOLDERS = List.of(
+            "org.apache.poi.schemas.ooxml.system.ooxml.TypeSystemHolder",
+            "org.apache.xmlbeans.metadata.system.sXMLCONFIG.TypeSystemHolder",
+            "org.apache.xmlbeans.metadata.system.sXMLLANG.TypeSystemHolder",
+            "org.apache.xmlbeans.metadata.system.sXMLSCHEMA.TypeSystemHolder",
+            "org.apache.xmlbeans.metadata.system.sXMLTOOLS.TypeSystemHolder"
+    );
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // The compiled schemas, looked up by XMLBeans by name and namespace
+        hints.resources()
+                .registerPattern("org/apache/poi/schemas/ooxml/**")
+                .registerPattern("org/apache/xmlbeans/metadata/**")
+                .registerPattern("org/apache/xmlbeans/message.properties")
+                .registerPattern("org/apache/xmlbeans/impl/regex/message.properties")
+                .registerPattern("META-INF/log4j-provider.properties");
+
+        ReflectionHints reflection = hints.reflection();
+        // The type systems are resolved by class name and read from a static field
+        TYPE_SYSTEM_HOLDERS.forEach(holder -> reflection.registerTypeIfPresent(
+                classLoader, holder, MemberCategory.PUBLIC_FIELDS, MemberCategory.DECLARED_FIELDS
+        ));
+        for (String schemaPackage : SCHEMA_PACKAGES) {
+            registerSchemaTypes(reflection, classLoader, schemaPackage);
+        }
+    }
+
+    /**
+     * Registers the XML types of a schema package: the interfaces are loaded by name, the implementations
+     * are also instantiated through their declared constructor.
+     */
+    private static void registerSchemaTypes(ReflectionHints reflection, ClassLoader classLoader, String schemaPackage) {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        String packagePath = schemaPackage.replace('.', '/');
+        try {
+            for (Resource resource : resolver.getResources("classpath*:" + packagePath + "/**/*" + CLASS_SUFFIX)) {
+                String location = resource.getURL().toString();
+                String className = location
+                        .substring(location.lastIndexOf(packagePath), location.length() - CLASS_SUFFIX.length())
+                        .replace('/', '.');
+                if (className.contains(".impl.")) {
+                    reflection.registerType(TypeReference.of(className), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+                } else {
+                    reflection.registerType(TypeReference.of(className));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
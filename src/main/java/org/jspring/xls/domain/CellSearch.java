@@ -2,10 +2,11 @@ package org.jspring.xls.domain;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static java.util.stream.StreamSupport.stream;
 
@@ -22,61 +23,87 @@ public record CellSearch<T>(
 
     /**
      * Searches for a cell in the sheet based on the sheet info and cell coordinates.
+     * Rows are visited lazily in order and the search stops at the first matching cell.
      *
      * @return An Optional containing the found cell, or an empty Optional if the cell is not found.
      */
     public Optional<Cell> search() {
-        List<Row> rows = stream(
-                sheetInfo.getSheet().spliterator(),
-                false
-        ).toList();
-
         if (cellCoordinates.byCoordinates()) {
-            return Optional.ofNullable(
-                    rows.get(cellCoordinates.rowNumber())
-                            .getCell(cellCoordinates.columnNumber())
-            );
+            return searchByCoordinates(sheetInfo.getSheet());
         }
 
         if (cellCoordinates.byValue()) {
-            List<Cell> cellList = new ArrayList<>();
-            rows.forEach(
-                    row -> row.forEach(
-                            cell -> addIfCellHasValue(
-                                    cellList,
-                                    cell,
-                                    cellCoordinates.cellValue()
-                            )
-                    )
-            );
-
-            return cellList.stream()
-                    .filter(cellCoordinates.filter())
+            return stream(sheetInfo.getSheet().spliterator(), false)
+                    .flatMap(row -> stream(row.spliterator(), false))
+                    .filter(this::matches)
                     .findFirst();
-
         }
 
         return Optional.empty();
     }
 
-    private void addIfCellHasValue(List<Cell> cellList, Cell cell, T value) {
+    /**
+     * Searches for a cell by value, scanning ranges of rows in parallel.
+     * The first matching cell in row order is returned, as with {@link #search()}. This pays off for
+     * large sheets where the value is missing or near the end, since the whole sheet has to be visited;
+     * the sheet must not be modified during the search.
+     *
+     * @return An Optional containing the found cell, or an empty Optional if the cell is not found.
+     */
+    public Optional<Cell> parallelSearch() {
+        if (cellCoordinates.byCoordinates() || !cellCoordinates.byValue()) {
+            return search();
+        }
+
+        Sheet sheet = sheetInfo.getSheet();
+        // The range of row indexes splits evenly, unlike the iterator of the rows
+        return IntStream.rangeClosed(Math.max(sheet.getFirstRowNum(), 0), sheet.getLastRowNum())
+                .parallel()
+                .mapToObj(sheet::getRow)
+                .filter(Objects::nonNull)
+                .flatMap(row -> stream(row.spliterator(), false))
+                .filter(this::matches)
+                .findFirst();
+    }
 
-        boolean hasValue = switch (cell.getCellType()) {
+    /**
+     * Looks up the cell at the coordinates directly in the given sheet, without visiting the other rows.
+     * Row and column numbers are the logical indexes of the sheet, so missing rows are not counted.
+     *
+     * @param sheet The sheet of the sheet info, resolved once by the caller.
+     * @return An Optional containing the cell, or an empty Optional if the row or the cell does not exist.
+     */
+    public Optional<Cell> searchByCoordinates(Sheet sheet) {
+        Row row = sheet.getRow(cellCoordinates.rowNumber());
+        return Optional.ofNullable(row)
+                .map(r -> r.getCell(cellCoordinates.columnNumber()));
+    }
+
+    private boolean matches(Cell cell) {
+        return hasValue(cell, cellCoordinates.cellValue())
+                && (cellCoordinates.filter() == null || cellCoordinates.filter().test(cell));
+    }
+
+    /**
+     * Checks if a cell holds the given value. Strings and formulas are compared ignoring case,
+     * numbers by their double value.
+     *
+     * @param cell  The cell to check.
+     * @param value The searched value.
+     * @return True if the cell holds the value, false otherwise.
+     */
+    public static boolean hasValue(Cell cell, Object value) {
+        return switch (cell.getCellType()) {
             case STRING -> value instanceof String s
                     && cell.getStringCellValue().equalsIgnoreCase(s);
-            case NUMERIC -> value instanceof Double || value instanceof Integer n
-                    && cell.getNumericCellValue() == n;
+            case NUMERIC -> value instanceof Number n
+                    && cell.getNumericCellValue() == n.doubleValue();
             case BOOLEAN -> value instanceof Boolean b
                     && cell.getBooleanCellValue() == b;
             case FORMULA -> value instanceof String s
                     && cell.getCellFormula().equalsIgnoreCase(s);
             case BLANK, _NONE, ERROR -> false;
         };
-
-        if (hasValue) {
-            cellList.add(cell);
-        }
-
     }
 
 }
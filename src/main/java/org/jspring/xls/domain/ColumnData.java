@@ -0,0 +1,190 @@
+package org.jspring.xls.domain;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.utils.CellUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column of values backed by a primitive array, written to the cells without boxing the values.
+ */
+public sealed interface ColumnData {
+
+    /**
+     * Returns the number of values of the column.
+     *
+     * @return The number of values.
+     */
+    int size();
+
+    /**
+     * Writes a value of the column to a cell.
+     *
+     * @param cell     The cell to write the value to.
+     * @param index    The index of the value in the column.
+     * @param strategy The resolved strategy storing the texts, ignored by the columns without texts.
+     */
+    void write(Cell cell, int index, StringStrategy strategy);
+
+    /**
+     * Resolves the strategy storing the texts of the column.
+     *
+     * @param strategy The strategy chosen for the column.
+     * @return {@link StringStrategy#SHARED} or {@link StringStrategy#INLINE}.
+     */
+    default StringStrategy resolve(StringStrategy strategy) {
+        return strategy == StringStrategy.ADAPTIVE ? StringStrategy.SHARED : strategy;
+    }
+
+    static DoubleColumn of(double... values) {
+        return new DoubleColumn(values);
+    }
+
+    static LongColumn of(long... values) {
+        return new LongColumn(values);
+    }
+
+    static IntColumn of(int... values) {
+        return new IntColumn(values);
+    }
+
+    static BooleanColumn of(boolean... values) {
+        return new BooleanColumn(values);
+    }
+
+    /**
+     * A column of numbers.
+     *
+     * @param values The values of the column.
+     */
+    record DoubleColumn(double[] values) implements ColumnData {
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void write(Cell cell, int index, StringStrategy strategy) {
+            cell.setCellValue(values[index]);
+        }
+    }
+
+    /**
+     * A column of integers, written as numbers. Values beyond 2^53 lose precision, as in Excel.
+     *
+     * @param values The values of the column.
+     */
+    record LongColumn(long[] values) implements ColumnData {
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void write(Cell cell, int index, StringStrategy strategy) {
+            cell.setCellValue((double) values[index]);
+        }
+    }
+
+    /**
+     * A column of integers, written as numbers.
+     *
+     * @param values The values of the column.
+     */
+    record IntColumn(int[] values) implements ColumnData {
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void write(Cell cell, int index, StringStrategy strategy) {
+            cell.setCellValue(values[index]);
+        }
+    }
+
+    /**
+     * A column of booleans.
+     *
+     * @param values The values of the column.
+     */
+    record BooleanColumn(boolean[] values) implements ColumnData {
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public void write(Cell cell, int index, StringStrategy strategy) {
+            cell.setCellValue(values[index]);
+        }
+    }
+
+    /**
+     * A column of texts encoded as indexes in a dictionary of the distinct texts,
+     * so that a repeated text is held once in memory whatever the size of the column.
+     *
+     * @param dictionary The distinct texts of the column.
+     * @param codes      The index in the dictionary of each value of the column, or {@link #BLANK} for a missing value.
+     */
+    record DictionaryColumn(String[] dictionary, int[] codes) implements ColumnData {
+
+        /**
+         * The code of a missing value, written as a blank cell.
+         */
+        public static final int BLANK = -1;
+
+        /**
+         * Encodes a list of texts, numbering the distinct texts in order of first appearance.
+         * Null values are not part of the dictionary, they are encoded as {@link #BLANK}.
+         *
+         * @param values The texts of the column.
+         * @return The dictionary encoded column.
+         */
+        public static DictionaryColumn encode(List<String> values) {
+            Map<String, Integer> indexes = new HashMap<>();
+            int[] codes = new int[values.size()];
+            for (int i = 0; i < codes.length; i++) {
+                String value = values.get(i);
+                codes[i] = value == null ? BLANK : indexes.computeIfAbsent(value, text -> indexes.size());
+            }
+            String[] dictionary = new String[indexes.size()];
+            indexes.forEach((value, index) -> dictionary[index] = value);
+            return new DictionaryColumn(dictionary, codes);
+        }
+
+        @Override
+        public int size() {
+            return codes.length;
+        }
+
+        @Override
+        public void write(Cell cell, int index, StringStrategy strategy) {
+            int code = codes[index];
+            String value = code == BLANK ? null : dictionary[code];
+            if (value == null) {
+                cell.setBlank();
+            } else {
+                CellUtils.writeValue(cell, value, strategy);
+            }
+        }
+
+        /**
+         * Resolves {@link StringStrategy#ADAPTIVE} from the size of the dictionary, without sampling the values.
+         */
+        @Override
+        public StringStrategy resolve(StringStrategy strategy) {
+            return strategy == StringStrategy.ADAPTIVE
+                    ? StringStrategy.resolve(dictionary.length, codes.length)
+                    : strategy;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.jspring.xls.domain;
+
+import java.util.List;
+
+/**
+ * A table given column by column as primitive {@link ColumnData}, the unboxed counterpart of {@link TableData}.
+ *
+ * @param columns The columns of the table, from left to right.
+ * @param maxRows The maximum number of rows, the values of a column beyond it are not written.
+ */
+public record ColumnarTableData(List<ColumnData> columns, int maxRows) {
+
+    /**
+     * Creates a table with as many rows as its longest column.
+     *
+     * @param columns The columns of the table, from left to right.
+     */
+    public ColumnarTableData(List<ColumnData> columns) {
+        this(columns, columns.stream().mapToInt(ColumnData::size).max().orElse(0));
+    }
+
+    /**
+     * Returns the number of rows written for a column.
+     *
+     * @param column The index of the column in the table.
+     * @return The number of rows of the column.
+     */
+    public int rowsOf(int column) {
+        return Math.min(columns.get(column).size(), maxRows);
+    }
+
+}
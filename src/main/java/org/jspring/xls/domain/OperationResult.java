@@ -0,0 +1,25 @@
+package org.jspring.xls.domain;
+
+import org.jspring.xls.builder.WorkbookOperation;
+
+/**
+ * Represents the outcome of one operation of a batch.
+ *
+ * @param operation The executed operation.
+ * @param error     The error raised by the operation, or null if it succeeded.
+ */
+public record OperationResult(
+        WorkbookOperation operation,
+        Throwable error
+) {
+
+    /**
+     * Checks if the operation completed without error.
+     *
+     * @return True if the operation succeeded, false otherwise.
+     */
+    public boolean succeeded() {
+        return error == null;
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.jspring.xls.domain;
+
+import java.util.List;
+
+/**
+ * Represents a lightweight, read-only view of a sheet row produced by the streaming reader.
+ *
+ * @param rowNumber The zero-based index of the row in the sheet.
+ * @param cells     The typed cell values indexed by column, with null for the missing cells.
+ */
+public record RowView(int rowNumber, List<CellWrapper<?>> cells) {
+
+    /**
+     * Retrieves the value of the cell in the given column.
+     *
+     * @param columnNumber The zero-based index of the column.
+     * @return The value of the cell, or null if the row has no cell in that column.
+     */
+    public CellWrapper<?> cell(int columnNumber) {
+        return columnNumber < cells.size() ? cells.get(columnNumber) : null;
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.jspring.xls.domain;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellAddress;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * An inverted index of the values of a sheet, mapping each value to the addresses of the cells holding it.
+ * The index is built with a single pass over the sheet, after which a value search only visits the
+ * matching cells. Addresses are kept in row-major order, so a search returns the same cell as a full scan.
+ * The index is a snapshot: it must be rebuilt once cells of the sheet have been written.
+ * It only holds cell addresses, not the sheet, so that it can be cached against a weakly referenced sheet.
+ */
+public class SheetValueIndex {
+
+    private final Map<String, List<CellAddress>> textCells = new HashMap<>();
+    private final Map<Double, List<CellAddress>> numericCells = new HashMap<>();
+    private final Map<Boolean, List<CellAddress>> booleanCells = new HashMap<>();
+
+    private SheetValueIndex() {
+    }
+
+    /**
+     * Builds the index of all the string, formula, numeric and boolean cells of a sheet.
+     *
+     * @param sheet The sheet to index.
+     * @return The index of the sheet.
+     */
+    public static SheetValueIndex build(Sheet sheet) {
+        SheetValueIndex index = new SheetValueIndex();
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                index.add(cell);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Searches the first cell holding the value of the coordinates and accepted by their filter.
+     *
+     * @param sheet           The indexed sheet.
+     * @param cellCoordinates The coordinates containing the cell value and the filter.
+     * @param <T>             The type of the cell value.
+     * @return An Optional containing the found cell, or an empty Optional if the cell is not found.
+     */
+    public <T> Optional<Cell> find(Sheet sheet, CellCoordinates<T> cellCoordinates) {
+        T value = cellCoordinates.cellValue();
+        Predicate<Cell> filter = cellCoordinates.filter() != null ? cellCoordinates.filter() : cell -> true;
+
+        for (CellAddress address : candidates(value)) {
+            Row row = sheet.getRow(address.getRow());
+            Cell cell = row != null ? row.getCell(address.getColumn()) : null;
+            // Guards against cells changed since the index was built
+            if (cell != null && CellSearch.hasValue(cell, value) && filter.test(cell)) {
+                return Optional.of(cell);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<CellAddress> candidates(Object value) {
+        List<CellAddress> addresses = switch (value) {
+            case String s -> textCells.get(normalize(s));
+            case Number n -> numericCells.get(n.doubleValue());
+            case Boolean b -> booleanCells.get(b);
+            case null, default -> null;
+        };
+        return addresses != null ? addresses : List.of();
+    }
+
+    private void add(Cell cell) {
+        CellAddress address = new CellAddress(cell);
+        switch (cell.getCellType()) {
+            case STRING -> put(textCells, normalize(cell.getStringCellValue()), address);
+            case FORMULA -> put(textCells, normalize(cell.getCellFormula()), address);
+            case NUMERIC -> put(numericCells, cell.getNumericCellValue(), address);
+            case BOOLEAN -> put(booleanCells, cell.getBooleanCellValue(), address);
+            case BLANK, _NONE, ERROR -> {
+            }
+        }
+    }
+
+    private static <K> void put(Map<K, List<CellAddress>> cells, K key, CellAddress address) {
+        cells.computeIfAbsent(key, k -> new ArrayList<>(1)).add(address);
+    }
+
+    /**
+     * Folds the case of a text the same way {@link String#equalsIgnoreCase(String)} compares characters,
+     * so that two texts have the same key exactly when they are equal ignoring case.
+     */
+    private static String normalize(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            folded.append(Character.toLowerCase(Character.toUpperCase(text.charAt(i))));
+        }
+        return folded.toString();
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.jspring.xls.domain;
+
+import org.jspring.xls.enums.StringStrategy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the string strategies of the columns of a table.
+ *
+ * @param defaultStrategy The strategy of the columns without a strategy of their own.
+ * @param columns         The strategies of some columns, by index of the column in the table.
+ */
+public record StringStrategies(
+        StringStrategy defaultStrategy,
+        Map<Integer, StringStrategy> columns
+) {
+
+    /**
+     * Creates string strategies applying the same strategy to every column.
+     *
+     * @param strategy The strategy of all the columns.
+     * @return The string strategies.
+     */
+    public static StringStrategies of(StringStrategy strategy) {
+        return new StringStrategies(strategy, Map.of());
+    }
+
+    /**
+     * Returns the strategy chosen for a column, before resolution.
+     *
+     * @param column The index of the column in the table.
+     * @return The strategy of the column, or the default strategy.
+     */
+    public StringStrategy strategyOf(int column) {
+        return columns.getOrDefault(column, defaultStrategy);
+    }
+
+    /**
+     * Resolves the strategy of a column of a table from its values.
+     *
+     * @param column    The index of the column in the table.
+     * @param tableData The table.
+     * @return {@link StringStrategy#SHARED} or {@link StringStrategy#INLINE}.
+     */
+    public StringStrategy resolve(int column, TableData<?> tableData) {
+        return strategyOf(column).resolve(columnValues(column, tableData));
+    }
+
+    /**
+     * Checks if every column of a table resolves to {@link StringStrategy#SHARED}.
+     *
+     * @param tableData The table.
+     * @return True if all the columns use the shared strings table, false otherwise.
+     */
+    public boolean allShared(TableData<?> tableData) {
+        for (int column = 0; column < tableData.maxCols(); column++) {
+            if (resolve(column, tableData) != StringStrategy.SHARED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<?> columnValues(int column, TableData<?> tableData) {
+        // Tables are filled top to bottom, a column holds maxRows consecutive values
+        int size = Math.min(tableData.values().size(), tableData.maxRows() * tableData.maxCols());
+        int from = Math.min(column * tableData.maxRows(), size);
+        int to = Math.min(from + tableData.maxRows(), size);
+        return tableData.values().subList(from, to);
+    }
+
+}
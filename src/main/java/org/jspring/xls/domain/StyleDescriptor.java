@@ -0,0 +1,157 @@
+package org.jspring.xls.domain;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * Describes a cell style by value, so that equal descriptors can share a single style record of a workbook.
+ * Null attributes are inherited from the base style, or from the default style of the workbook when
+ * there is no base style.
+ *
+ * @param baseStyleIndex      The index of the workbook style to clone, e.g. the style of a template cell.
+ * @param dataFormat          The data format, e.g. {@code "0.00"} or {@code "yyyy-mm-dd"}.
+ * @param fontName            The name of the font.
+ * @param fontHeightInPoints  The height of the font in points.
+ * @param bold                Whether the font is bold.
+ * @param italic              Whether the font is italic.
+ * @param fontColor           The indexed color of the font, see {@link org.apache.poi.ss.usermodel.IndexedColors}.
+ * @param fillColor           The indexed foreground color of the fill.
+ * @param fillPattern         The fill pattern, {@link FillPatternType#SOLID_FOREGROUND} for a plain fill.
+ * @param border              The border style of the four sides.
+ * @param horizontalAlignment The horizontal alignment.
+ * @param verticalAlignment   The vertical alignment.
+ * @param wrapText            Whether the text is wrapped.
+ */
+public record StyleDescriptor(
+        Integer baseStyleIndex,
+        String dataFormat,
+        String fontName,
+        Short fontHeightInPoints,
+        Boolean bold,
+        Boolean italic,
+        Short fontColor,
+        Short fillColor,
+        FillPatternType fillPattern,
+        BorderStyle border,
+        HorizontalAlignment horizontalAlignment,
+        VerticalAlignment verticalAlignment,
+        Boolean wrapText
+) {
+
+    /**
+     * Checks if the descriptor changes any attribute of the font.
+     *
+     * @return True if a font attribute is set, false otherwise.
+     */
+    public boolean hasFont() {
+        return fontName != null || fontHeightInPoints != null || bold != null || italic != null || fontColor != null;
+    }
+
+    /**
+     * Initializes a new builder of style descriptors.
+     *
+     * @return A new instance of the StyleBuilder class.
+     */
+    public static StyleBuilder builder() {
+        return new StyleBuilder();
+    }
+
+    /**
+     * A builder class for creating instances of StyleDescriptor.
+     */
+    public static class StyleBuilder {
+        private Integer baseStyleIndex;
+        private String dataFormat;
+        private String fontName;
+        private Short fontHeightInPoints;
+        private Boolean bold;
+        private Boolean italic;
+        private Short fontColor;
+        private Short fillColor;
+        private FillPatternType fillPattern;
+        private BorderStyle border;
+        private HorizontalAlignment horizontalAlignment;
+        private VerticalAlignment verticalAlignment;
+        private Boolean wrapText;
+
+        /**
+         * Sets the workbook style to clone, e.g. the style of a template cell.
+         *
+         * @param baseStyleIndex The index of the style in the workbook.
+         * @return The StyleBuilder instance.
+         */
+        public StyleBuilder baseStyle(int baseStyleIndex) {
+            this.baseStyleIndex = baseStyleIndex;
+            return this;
+        }
+
+        public StyleBuilder dataFormat(String dataFormat) {
+            this.dataFormat = dataFormat;
+            return this;
+        }
+
+        public StyleBuilder font(String fontName, int fontHeightInPoints) {
+            this.fontName = fontName;
+            this.fontHeightInPoints = (short) fontHeightInPoints;
+            return this;
+        }
+
+        public StyleBuilder bold(boolean bold) {
+            this.bold = bold;
+            return this;
+        }
+
+        public StyleBuilder italic(boolean italic) {
+            this.italic = italic;
+            return this;
+        }
+
+        public StyleBuilder fontColor(short fontColor) {
+            this.fontColor = fontColor;
+            return this;
+        }
+
+        /**
+         * Sets a solid fill of the given color.
+         *
+         * @param fillColor The indexed color of the fill.
+         * @return The StyleBuilder instance.
+         */
+        public StyleBuilder fill(short fillColor) {
+            this.fillColor = fillColor;
+            this.fillPattern = FillPatternType.SOLID_FOREGROUND;
+            return this;
+        }
+
+        public StyleBuilder border(BorderStyle border) {
+            this.border = border;
+            return this;
+        }
+
+        public StyleBuilder alignment(HorizontalAlignment horizontalAlignment, VerticalAlignment verticalAlignment) {
+            this.horizontalAlignment = horizontalAlignment;
+            this.verticalAlignment = verticalAlignment;
+            return this;
+        }
+
+        public StyleBuilder wrapText(boolean wrapText) {
+            this.wrapText = wrapText;
+            return this;
+        }
+
+        /**
+         * Builds a new instance of StyleDescriptor using the provided values.
+         *
+         * @return A new instance of StyleDescriptor.
+         */
+        public StyleDescriptor build() {
+            return new StyleDescriptor(
+                    baseStyleIndex, dataFormat, fontName, fontHeightInPoints, bold, italic, fontColor,
+                    fillColor, fillPattern, border, horizontalAlignment, verticalAlignment, wrapText
+            );
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.jspring.xls.enums;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Defines how the text of string cells is stored in a workbook.
+ */
+public enum StringStrategy {
+
+    /**
+     * Texts are stored once in the shared strings table of the workbook and cells refer to them.
+     * Makes small files for repetitive texts, but the table keeps every distinct text in memory.
+     */
+    SHARED,
+
+    /**
+     * Texts are stored inline in each cell, the shared strings table does not grow.
+     * Keeps the memory low for unique texts such as identifiers or free text.
+     */
+    INLINE,
+
+    /**
+     * Chooses {@link #SHARED} or {@link #INLINE} for each column from the proportion of distinct texts
+     * in a sample of its values.
+     */
+    ADAPTIVE;
+
+    /**
+     * The number of texts of a column sampled by {@link #ADAPTIVE}.
+     */
+    public static final int ADAPTIVE_SAMPLE_SIZE = 1024;
+
+    /**
+     * The proportion of distinct texts in the sample above which {@link #ADAPTIVE} stores a column inline.
+     */
+    public static final double ADAPTIVE_DISTINCT_RATIO = 0.5;
+
+    /**
+     * Resolves the strategy used for the values of a column.
+     *
+     * @param columnValues The values of the column.
+     * @return {@link #SHARED} or {@link #INLINE}.
+     */
+    public StringStrategy resolve(List<?> columnValues) {
+        if (this != ADAPTIVE) {
+            return this;
+        }
+        Set<Object> distinct = new HashSet<>();
+        int sampled = 0;
+        for (Object value : columnValues) {
+            if (value instanceof String) {
+                distinct.add(value);
+                if (++sampled == ADAPTIVE_SAMPLE_SIZE) {
+                    break;
+                }
+            }
+        }
+        return resolve(distinct.size(), sampled);
+    }
+
+    /**
+     * Resolves {@link #ADAPTIVE} from the number of distinct texts among a number of texts.
+     *
+     * @param distinct The number of distinct texts.
+     * @param count    The number of texts.
+     * @return {@link #SHARED} or {@link #INLINE}.
+     */
+    public static StringStrategy resolve(int distinct, int count) {
+        return count > 1 && distinct > count * ADAPTIVE_DISTINCT_RATIO ? INLINE : SHARED;
+    }
+}
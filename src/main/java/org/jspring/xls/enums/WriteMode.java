@@ -0,0 +1,19 @@
+package org.jspring.xls.enums;
+
+/**
+ * Defines how a workbook is held in memory while it is being written.
+ */
+public enum WriteMode {
+
+    /**
+     * The whole workbook is kept in memory as an {@link org.apache.poi.xssf.usermodel.XSSFWorkbook}.
+     * Every cell can be read and rewritten until the workbook is saved.
+     */
+    IN_MEMORY,
+
+    /**
+     * Rows are written through an {@link org.apache.poi.xssf.streaming.SXSSFWorkbook}: only a window
+     * of rows stays on the heap, older rows are flushed to temporary files and can no longer be accessed.
+     */
+    STREAMING
+}
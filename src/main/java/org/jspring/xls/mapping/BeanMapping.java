@@ -0,0 +1,236 @@
+package org.jspring.xls.mapping;
+
+import org.jspring.xls.annotation.XlsColumn;
+import org.springframework.core.NativeDetector;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The columns of a record or a bean annotated with {@link XlsColumn}.
+ * The accessors of a class are compiled once, through {@link LambdaMetafactory} when the property has an
+ * accessor method and through a {@link MethodHandle} for a field without getter, and cached per class:
+ * reading a row afterwards costs a plain method call per column, without reflection. In a native image, where
+ * lambdas cannot be spun at runtime, every accessor is a {@link MethodHandle}.
+ * <p>
+ * The columns of a record are its annotated components. The columns of a bean are its annotated fields,
+ * read through their getter when one exists, and its annotated getters, including those inherited from its
+ * superclasses. A property is a single column even when both its field and its getter are annotated, the field
+ * annotation then wins, and a property annotated again in a subclass takes the annotation of the subclass.
+ * The JVM does not keep the declaration order of methods, annotated getters should therefore set their
+ * {@link XlsColumn#order()}.
+ *
+ * @param type    The mapped class.
+ * @param columns The columns, ordered by {@link XlsColumn#order()} then in declaration order.
+ * @param <T>     The mapped type.
+ */
+public record BeanMapping<T>(Class<T> type, List<ColumnMapping<T>> columns) {
+
+    private static final ClassValue<BeanMapping<?>> MAPPINGS = new ClassValue<>() {
+        @Override
+        protected BeanMapping<?> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    public BeanMapping {
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * Returns the mapping of a class, compiled the first time only.
+     *
+     * @param type The mapped class.
+     * @return The mapping of the class.
+     * @throws IllegalArgumentException If the class has no {@link XlsColumn} property.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapping<T> of(Class<T> type) {
+        return (BeanMapping<T>) MAPPINGS.get(type);
+    }
+
+    /**
+     * Returns the headers of the columns.
+     *
+     * @return The headers, in column order.
+     */
+    public List<String> headers() {
+        return columns.stream().map(ColumnMapping::header).toList();
+    }
+
+    private static <T> BeanMapping<T> create(Class<T> type) {
+        List<Property> properties = properties(type);
+        if (properties.isEmpty()) {
+            throw new IllegalArgumentException("No @XlsColumn property found in " + type.getName());
+        }
+
+        List<ColumnMapping<T>> columns = new ArrayList<>(properties.size());
+        properties.forEach(property -> columns.add(new ColumnMapping<>(
+                property.header(),
+                MethodType.methodType(property.type()).wrap().returnType(),
+                accessor(type, property)
+        )));
+        return new BeanMapping<>(type, columns);
+    }
+
+    /**
+     * Returns the annotated properties of a class, in column order. {@link RowBinding} binds the same
+     * properties, so that an exported table can be read back by column index.
+     */
+    static List<Property> properties(Class<?> type) {
+        List<Property> properties = type.isRecord()
+                ? recordProperties(type)
+                : beanProperties(type);
+        return properties.stream()
+                .sorted(Comparator.comparingInt(Property::order))
+                .toList();
+    }
+
+    private static List<Property> recordProperties(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            XlsColumn column = component.getAnnotation(XlsColumn.class);
+            if (column != null) {
+                properties.add(new Property(component.getName(), column, component.getType(),
+                        component.getAccessor(), null));
+            }
+        }
+        return properties;
+    }
+
+    private static List<Property> beanProperties(Class<?> type) {
+        // The superclasses first, so that their columns come first and a subclass replaces their properties
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        Map<String, Property> properties = new LinkedHashMap<>();
+        for (Class<?> declaringClass : hierarchy) {
+            Map<String, Property> declared = new LinkedHashMap<>();
+            for (Field field : declaringClass.getDeclaredFields()) {
+                XlsColumn column = field.getAnnotation(XlsColumn.class);
+                if (column != null && !Modifier.isStatic(field.getModifiers())) {
+                    declared.put(field.getName(), new Property(field.getName(), column, field.getType(),
+                            getter(declaringClass, field), field));
+                }
+            }
+            for (Method method : declaringClass.getDeclaredMethods()) {
+                XlsColumn column = method.getAnnotation(XlsColumn.class);
+                if (column != null && !method.isBridge() && !method.isSynthetic()) {
+                    if (method.getParameterCount() != 0 || method.getReturnType() == void.class
+                            || Modifier.isStatic(method.getModifiers())) {
+                        throw new IllegalArgumentException("@XlsColumn method " + method + " is not a getter");
+                    }
+                    String name = propertyName(method.getName());
+                    declared.putIfAbsent(name, new Property(name, column, method.getReturnType(), method, null));
+                }
+            }
+            properties.putAll(declared);
+        }
+        return new ArrayList<>(properties.values());
+    }
+
+    private static Method getter(Class<?> type, Field field) {
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        for (String name : List.of("get" + suffix, "is" + suffix)) {
+            try {
+                Method method = type.getDeclaredMethod(name);
+                if (method.getReturnType() == field.getType()) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // Try the next naming convention, then fall back to the field
+            }
+        }
+        return null;
+    }
+
+    static String propertyName(String methodName) {
+        String name = methodName.startsWith("get") && methodName.length() > 3 ? methodName.substring(3)
+                : methodName.startsWith("is") && methodName.length() > 2 ? methodName.substring(2)
+                : methodName;
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, Object> accessor(Class<T> type, Property property) {
+        Class<?> declaringClass = property.declaringClass();
+        MethodHandles.Lookup lookup;
+        try {
+            // An inherited property is only accessible from the class declaring it
+            lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access the properties of " + declaringClass.getName(), e);
+        }
+        try {
+            if (property.method() == null) {
+                MethodHandle getter = lookup.unreflectGetter(property.field())
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> invoke(getter, bean);
+            }
+            if (NativeDetector.inNativeImage()) {
+                MethodHandle getter = lookup.unreflect(property.method())
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> invoke(getter, bean);
+            }
+
+            MethodHandle getter = lookup.unreflect(property.method());
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    getter,
+                    MethodType.methodType(getter.type().wrap().returnType(), declaringClass)
+            );
+            return (Function<T, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot compile the accessor of " + type.getName() + "."
+                    + property.name(), e);
+        }
+    }
+
+    private static Object invoke(MethodHandle getter, Object bean) {
+        try {
+            return getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * An annotated property, read through its getter when it has one, otherwise through its field.
+     */
+    record Property(String name, XlsColumn column, Class<?> type, Method method, Field field) {
+
+        String header() {
+            return column.header().isEmpty() ? name : column.header();
+        }
+
+        int order() {
+            return column.order();
+        }
+
+        Class<?> declaringClass() {
+            return method != null ? method.getDeclaringClass() : field.getDeclaringClass();
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.jspring.xls.mapping;
+
+import java.util.function.Function;
+
+/**
+ * Represents a column of an exported table, read from a property of the exported objects.
+ *
+ * @param header   The header of the column.
+ * @param type     The type of the property, boxed for primitive properties.
+ * @param accessor The compiled accessor reading the property of an object.
+ * @param <T>      The type of the exported objects.
+ */
+public record ColumnMapping<T>(
+        String header,
+        Class<?> type,
+        Function<T, Object> accessor
+) {
+
+    /**
+     * Reads the value of the column for an object.
+     *
+     * @param bean The exported object.
+     * @return The value of the property.
+     */
+    public Object valueOf(T bean) {
+        return accessor.apply(bean);
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.jspring.xls.mapping;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.jspring.xls.domain.CellWrapper;
+import org.jspring.xls.domain.RowView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Binds the rows of a sheet to instances of a record or a bean, see {@link RowBinding}.
+ * Columns are matched once, by header or by index, and rows are then read straight from the cells of an
+ * in-memory sheet or from the {@link RowView}s of a streaming read, without intermediate cell wrappers.
+ * A binder holds no state between rows and can be shared between threads.
+ *
+ * @param <T> The bound type.
+ */
+public final class RowBinder<T> {
+
+    private final RowBinding<T> binding;
+    // The column of each property, -1 for the properties without column and those exported only
+    private final int[] columns;
+
+    private RowBinder(RowBinding<T> binding, int[] columns) {
+        this.binding = binding;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a binder reading the properties from consecutive columns, in the column order of the
+     * {@link BeanMapping} of the class. The columns of the properties exported only are skipped.
+     *
+     * @param type        The bound class.
+     * @param firstColumn The column of the first property.
+     * @return The binder.
+     */
+    public static <T> RowBinder<T> byIndex(Class<T> type, int firstColumn) {
+        RowBinding<T> binding = RowBinding.of(type);
+        int[] columns = new int[binding.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = binding.isBound(i) ? firstColumn + i : -1;
+        }
+        return new RowBinder<>(binding, columns);
+    }
+
+    /**
+     * Creates a binder reading each property from the column whose header matches the header of the property,
+     * ignoring case and surrounding spaces. Properties without a matching column are left to their default value.
+     *
+     * @param type    The bound class.
+     * @param headers The headers of the columns, indexed by column.
+     * @return The binder.
+     */
+    public static <T> RowBinder<T> byHeader(Class<T> type, List<String> headers) {
+        RowBinding<T> binding = RowBinding.of(type);
+        List<String> normalized = headers.stream().map(RowBinder::normalize).toList();
+        int[] columns = binding.headers().stream()
+                .map(RowBinder::normalize)
+                .mapToInt(normalized::indexOf)
+                .toArray();
+        for (int i = 0; i < columns.length; i++) {
+            if (!binding.isBound(i)) {
+                columns[i] = -1;
+            }
+        }
+        return new RowBinder<>(binding, columns);
+    }
+
+    /**
+     * Creates a binder matching the properties with the header row of an in-memory sheet.
+     *
+     * @param type      The bound class.
+     * @param headerRow The row holding the headers of the columns.
+     * @return The binder.
+     */
+    public static <T> RowBinder<T> byHeader(Class<T> type, Row headerRow) {
+        List<String> headers = new ArrayList<>();
+        for (int column = 0; column < Math.max(headerRow.getLastCellNum(), 0); column++) {
+            Object value = valueOf(headerRow.getCell(column), false);
+            headers.add(value != null ? value.toString() : null);
+        }
+        return byHeader(type, headers);
+    }
+
+    /**
+     * Creates a binder matching the properties with the header row of a streaming read.
+     *
+     * @param type      The bound class.
+     * @param headerRow The row holding the headers of the columns.
+     * @return The binder.
+     */
+    public static <T> RowBinder<T> byHeader(Class<T> type, RowView headerRow) {
+        return byHeader(type, headerRow.cells().stream()
+                .map(cell -> cell != null && cell.value() != null ? cell.value().toString() : null)
+                .toList());
+    }
+
+    /**
+     * Checks whether none of the bound columns of a row holds a value, e.g. a trailing formatted but empty row.
+     *
+     * @param row The row of an in-memory sheet.
+     * @return True if the bound cells are all blank.
+     */
+    public boolean isBlank(Row row) {
+        for (int column : columns) {
+            if (column >= 0 && !ValueConverters.isBlank(valueOf(row.getCell(column), false))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether none of the bound columns of a row holds a value.
+     *
+     * @param row The row of a streaming read.
+     * @return True if the bound cells are all blank.
+     */
+    public boolean isBlank(RowView row) {
+        for (int column : columns) {
+            if (column >= 0 && !ValueConverters.isBlank(valueOf(row.cell(column)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Binds a row of an in-memory sheet. Numeric cells with a date format are read as dates.
+     *
+     * @param row The row to bind.
+     * @return The new instance.
+     * @throws IllegalArgumentException If a cell cannot be converted to the type of its property.
+     */
+    public T bind(Row row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Object value = columns[i] >= 0 ? valueOf(row.getCell(columns[i]), true) : null;
+            values[i] = convert(i, value, row.getRowNum());
+        }
+        return binding.instantiate(values);
+    }
+
+    /**
+     * Binds a row of a streaming read.
+     *
+     * @param row The row to bind.
+     * @return The new instance.
+     * @throws IllegalArgumentException If a cell cannot be converted to the type of its property.
+     */
+    public T bind(RowView row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Object value = columns[i] >= 0 ? valueOf(row.cell(columns[i])) : null;
+            values[i] = convert(i, value, row.rowNumber());
+        }
+        return binding.instantiate(values);
+    }
+
+    private Object convert(int property, Object value, int rowNumber) {
+        try {
+            return binding.convert(property, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot bind the value '" + value + "' of row " + rowNumber
+                    + ", column " + columns[property] + " to " + binding.type().getSimpleName() + "."
+                    + binding.headers().get(property), e);
+        }
+    }
+
+    private static Object valueOf(CellWrapper<?> cell) {
+        return cell == null || cell.cellType() == CellType.ERROR ? null : cell.value();
+    }
+
+    private static Object valueOf(Cell cell, boolean dates) {
+        if (cell == null) {
+            return null;
+        }
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        return switch (type) {
+            case STRING -> cell.getStringCellValue();
+            case NUMERIC -> dates && DateUtil.isCellDateFormatted(cell)
+                    ? cell.getLocalDateTimeCellValue()
+                    : cell.getNumericCellValue();
+            case BOOLEAN -> cell.getBooleanCellValue();
+            case BLANK, ERROR, FORMULA, _NONE -> null;
+        };
+    }
+
+    private static String normalize(String header) {
+        return header == null ? null : header.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,252 @@
+package org.jspring.xls.mapping;
+
+import org.jspring.xls.annotation.XlsColumn;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The properties of a record or a bean filled from the columns of a row, compiled once per class.
+ * A record is created through its canonical constructor, a bean through its no-argument constructor and the
+ * setters of its properties, or the fields themselves when there is no setter. Constructors and setters are
+ * resolved as {@link MethodHandle}s and the converter of each property is chosen from its type, so that
+ * binding a row does no reflection.
+ * <p>
+ * The properties are those of the columns of the {@link BeanMapping} of the class, including the properties
+ * inherited from its superclasses, in the same order, so that a table exported from a class can be read back
+ * by column index. The annotated getters without setter are exported only: their columns are skipped.
+ *
+ * @param <T> The bound type.
+ */
+public final class RowBinding<T> {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<RowBinding<?>> BINDINGS = new ClassValue<>() {
+        @Override
+        protected RowBinding<?> computeValue(Class<?> type) {
+            return new RowBinding<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final List<Property> properties;
+    // Records: the canonical constructor taking the values array. Beans: the no-argument constructor.
+    private final MethodHandle constructor;
+    // Records: the position of each property in the constructor arguments
+    private final int[] argumentIndexes;
+    private final Object[] defaultArguments;
+
+    private RowBinding(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = lookupIn(type);
+        try {
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = Arrays.stream(components)
+                        .map(RecordComponent::getType)
+                        .toArray(Class<?>[]::new);
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                this.defaultArguments = Arrays.stream(parameterTypes).map(ValueConverters::defaultValue).toArray();
+                this.properties = recordProperties(components);
+                this.argumentIndexes = properties.stream().mapToInt(Property::argumentIndex).toArray();
+            } else {
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+                this.defaultArguments = null;
+                this.properties = beanProperties(type);
+                this.argumentIndexes = null;
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot create instances of " + type.getName(), e);
+        }
+        if (properties.isEmpty()) {
+            throw new IllegalArgumentException("No @XlsColumn property found in " + type.getName());
+        }
+    }
+
+    /**
+     * Returns the binding of a class, compiled the first time only.
+     *
+     * @param type The bound class.
+     * @return The binding of the class.
+     * @throws IllegalArgumentException If the class has no {@link XlsColumn} property, no usable constructor,
+     *                                  or a property of an unsupported type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowBinding<T> of(Class<T> type) {
+        return (RowBinding<T>) BINDINGS.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * Returns the headers of the properties, the header of their {@link XlsColumn} or their name.
+     *
+     * @return The headers, in property order.
+     */
+    public List<String> headers() {
+        return properties.stream().map(Property::header).toList();
+    }
+
+    int size() {
+        return properties.size();
+    }
+
+    /**
+     * Checks whether a property is read back, the properties of the getters without setter being exported only.
+     *
+     * @param property The index of the property.
+     * @return True if the property is set from its column, false if its column is skipped.
+     */
+    boolean isBound(int property) {
+        return argumentIndexes != null || properties.get(property).setter() != null;
+    }
+
+    /**
+     * Converts a cell value to the type of a property.
+     *
+     * @param property The index of the property.
+     * @param value    The value read from the cell, null for a missing cell.
+     * @return The converted value, the default value of the property type for a blank cell.
+     */
+    Object convert(int property, Object value) {
+        Property target = properties.get(property);
+        if (!isBound(property)) {
+            return null;
+        }
+        if (ValueConverters.isBlank(value) && target.type() != String.class) {
+            return target.defaultValue();
+        }
+        return value == null ? null : target.converter().apply(value);
+    }
+
+    /**
+     * Creates an instance from the converted values of its properties.
+     *
+     * @param values The values, in property order.
+     * @return The new instance.
+     */
+    T instantiate(Object[] values) {
+        try {
+            if (argumentIndexes != null) {
+                Object[] arguments = defaultArguments.clone();
+                for (int i = 0; i < values.length; i++) {
+                    arguments[argumentIndexes[i]] = values[i];
+                }
+                return type.cast(constructor.invokeExact(arguments));
+            }
+
+            Object bean = constructor.invokeExact();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null && isBound(i)) {
+                    properties.get(i).setter().invokeExact(bean, values[i]);
+                }
+            }
+            return type.cast(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<Property> recordProperties(RecordComponent[] components) {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < components.length; i++) {
+            XlsColumn column = components[i].getAnnotation(XlsColumn.class);
+            if (column != null) {
+                properties.add(Property.of(components[i].getName(), column, components[i].getType(), null, i));
+            }
+        }
+        return sorted(properties);
+    }
+
+    private static List<Property> beanProperties(Class<?> type) throws IllegalAccessException {
+        List<Property> properties = new ArrayList<>();
+        for (BeanMapping.Property exported : BeanMapping.properties(type)) {
+            Method setter = setter(type, exported.name(), exported.type());
+            MethodHandle handle;
+            if (setter != null) {
+                handle = lookupIn(setter.getDeclaringClass()).unreflect(setter);
+            } else if (exported.field() != null) {
+                Field field = exported.field();
+                handle = lookupIn(field.getDeclaringClass()).unreflectSetter(field);
+            } else {
+                // Computed properties without setter are exported only, their column is skipped
+                handle = null;
+            }
+            properties.add(Property.of(exported.name(), exported.column(), exported.type(),
+                    handle != null ? handle.asType(SETTER_TYPE) : null, -1));
+        }
+        return properties;
+    }
+
+    private static Method setter(Class<?> type, String property, Class<?> propertyType) {
+        String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredMethod(name, propertyType);
+            } catch (NoSuchMethodException e) {
+                // Look for the setter in the superclass
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandles.Lookup lookupIn(Class<?> type) {
+        try {
+            // An inherited property is only accessible from the class declaring it
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access the properties of " + type.getName(), e);
+        }
+    }
+
+    private static List<Property> sorted(List<Property> properties) {
+        return properties.stream()
+                .sorted(Comparator.comparingInt(property -> property.column().order()))
+                .toList();
+    }
+
+    private record Property(
+            String name,
+            XlsColumn column,
+            Class<?> type,
+            Function<Object, Object> converter,
+            Object defaultValue,
+            MethodHandle setter,
+            int argumentIndex
+    ) {
+
+        static Property of(String name, XlsColumn column, Class<?> type, MethodHandle setter, int argumentIndex) {
+            return new Property(
+                    name,
+                    column,
+                    type,
+                    ValueConverters.of(MethodType.methodType(type).wrap().returnType()),
+                    ValueConverters.defaultValue(type),
+                    setter,
+                    argumentIndex
+            );
+        }
+
+        String header() {
+            return column.header().isEmpty() ? name : column.header();
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.jspring.xls.mapping;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Converts the values read from cells, texts, doubles, booleans and date times, to the type of a property.
+ * The converter of a type is chosen once, when the binding of a class is compiled.
+ */
+final class ValueConverters {
+
+    private ValueConverters() {
+    }
+
+    /**
+     * Returns the converter of a property type. Blank texts are converted to null, except for text properties.
+     *
+     * @param type The type of the property, boxed for primitive properties.
+     * @return The converter of the cell values to the type.
+     * @throws IllegalArgumentException If the type is not supported.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Function<Object, Object> of(Class<?> type) {
+        if (type == Object.class) {
+            return value -> value;
+        }
+        if (type == String.class) {
+            return ValueConverters::toText;
+        }
+        if (type == Double.class) {
+            return value -> number(value).doubleValue();
+        }
+        if (type == Float.class) {
+            return value -> number(value).floatValue();
+        }
+        if (type == Long.class) {
+            return value -> number(value).longValue();
+        }
+        if (type == Integer.class) {
+            return value -> number(value).intValue();
+        }
+        if (type == Short.class) {
+            return value -> number(value).shortValue();
+        }
+        if (type == Byte.class) {
+            return value -> number(value).byteValue();
+        }
+        if (type == BigDecimal.class) {
+            return ValueConverters::toBigDecimal;
+        }
+        if (type == Boolean.class) {
+            return ValueConverters::toBoolean;
+        }
+        if (type == LocalDateTime.class) {
+            return ValueConverters::toLocalDateTime;
+        }
+        if (type == LocalDate.class) {
+            return value -> toLocalDateTime(value).toLocalDate();
+        }
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return value -> Enum.valueOf(enumType, toText(value).trim());
+        }
+        throw new IllegalArgumentException("Unsupported property type: " + type.getName());
+    }
+
+    /**
+     * Returns the value of a primitive type used for the missing cells, null for reference types.
+     *
+     * @param type The type of the property.
+     * @return The default value of the type.
+     */
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return switch (type.getName()) {
+            case "byte" -> (byte) 0;
+            case "short" -> (short) 0;
+            case "int" -> 0;
+            case "long" -> 0L;
+            case "float" -> 0f;
+            default -> 0d;
+        };
+    }
+
+    /**
+     * Checks whether a converted value stands for a missing cell.
+     *
+     * @param value The value read from a cell.
+     * @return True for null values and blank texts.
+     */
+    static boolean isBlank(Object value) {
+        return value == null || value instanceof String text && text.isBlank();
+    }
+
+    private static String toText(Object value) {
+        // Integral numbers are read back as typed, e.g. a code 42 rather than 42.0
+        if (value instanceof Double number && number == Math.rint(number) && !Double.isInfinite(number)
+                && Math.abs(number) < 1e15) {
+            return Long.toString(number.longValue());
+        }
+        return value.toString();
+    }
+
+    private static Number number(Object value) {
+        return switch (value) {
+            case Number number -> number;
+            case Boolean bool -> bool ? 1 : 0;
+            case String text -> new BigDecimal(text.trim());
+            default -> throw new IllegalArgumentException("Not a number: " + value);
+        };
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return switch (value) {
+            case BigDecimal number -> number;
+            case Double number -> BigDecimal.valueOf(number);
+            default -> new BigDecimal(number(value).toString());
+        };
+    }
+
+    private static Boolean toBoolean(Object value) {
+        return switch (value) {
+            case Boolean bool -> bool;
+            case Number number -> number.doubleValue() != 0;
+            case String text -> Boolean.parseBoolean(text.trim());
+            default -> throw new IllegalArgumentException("Not a boolean: " + value);
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return switch (value) {
+            case LocalDateTime dateTime -> dateTime;
+            case Double serial -> DateUtil.getLocalDateTime(serial);
+            case String text -> text.trim().length() == 10
+                    ? LocalDate.parse(text.trim()).atStartOfDay()
+                    : LocalDateTime.parse(text.trim());
+            default -> throw new IllegalArgumentException("Not a date: " + value);
+        };
+    }
+
+}
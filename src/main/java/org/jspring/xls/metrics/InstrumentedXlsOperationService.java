@@ -0,0 +1,45 @@
+package org.jspring.xls.metrics;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.builder.WorkbookOperation;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxWritingService;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link XlsOperationService} timing each operation, single or part of a batch, from the loaded template
+ * to the saved file or written stream, tagged with the template and the write mode.
+ */
+public class InstrumentedXlsOperationService extends XlsOperationService {
+
+    private final XlsMetrics metrics;
+
+    public InstrumentedXlsOperationService(
+            XlsxReadingService readingService,
+            XlsxWritingService writingService,
+            XlsxCellsWritingService cellsWritingService,
+            XlsxSearchingService searchingService,
+            int parallelism,
+            boolean virtualThreads,
+            XlsMetrics metrics
+    ) {
+        super(readingService, writingService, cellsWritingService, searchingService, parallelism, virtualThreads);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void execute(WorkbookOperation operation, XSSFWorkbook workbook, Consumer<Workbook> output) {
+        metrics.time(
+                XlsMetrics.OPERATION,
+                XlsMetrics.templateTags(operation.getTemplatePath())
+                        .and("mode", resolveWriteMode(operation).name().toLowerCase()),
+                () -> super.execute(operation, workbook, output)
+        );
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.jspring.xls.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.jspring.xls.domain.ColumnarTableData;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.StringStrategies;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxStyleService;
+
+/**
+ * A {@link XlsxCellsWritingService} timing the table writes and counting the rows and cells written,
+ * tagged with the sheet.
+ */
+public class InstrumentedXlsxCellsWritingService extends XlsxCellsWritingService {
+
+    private final XlsMetrics metrics;
+
+    public InstrumentedXlsxCellsWritingService(
+            StringStrategy defaultStringStrategy,
+            XlsxStyleService styleService,
+            XlsMetrics metrics
+    ) {
+        this(defaultStringStrategy, defaultStringStrategy, styleService, metrics);
+    }
+
+    public InstrumentedXlsxCellsWritingService(
+            StringStrategy defaultStringStrategy,
+            StringStrategy streamingStringStrategy,
+            XlsxStyleService styleService,
+            XlsMetrics metrics
+    ) {
+        super(defaultStringStrategy, streamingStringStrategy, styleService);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> void writeTopToBottom(
+            Sheet sheet,
+            StartPoint startPoint,
+            TableData<T> tableData,
+            StringStrategies stringStrategies
+    ) {
+        Tags tags = Tags.of("sheet", sheet.getSheetName());
+        metrics.time(XlsMetrics.CELLS_WRITE, tags,
+                () -> super.writeTopToBottom(sheet, startPoint, tableData, stringStrategies));
+
+        int cells = Math.min(tableData.values().size(), tableData.maxRows() * tableData.maxCols());
+        metrics.record(XlsMetrics.ROWS_WRITTEN, "rows", tags, Math.min(cells, tableData.maxRows()));
+        metrics.record(XlsMetrics.CELLS_WRITTEN, "cells", tags, cells);
+    }
+
+    @Override
+    public void writeColumns(
+            Sheet sheet,
+            StartPoint startPoint,
+            ColumnarTableData tableData,
+            StringStrategies stringStrategies
+    ) {
+        Tags tags = Tags.of("sheet", sheet.getSheetName());
+        metrics.time(XlsMetrics.CELLS_WRITE, tags,
+                () -> super.writeColumns(sheet, startPoint, tableData, stringStrategies));
+
+        int rows = 0;
+        int cells = 0;
+        for (int col = 0; col < tableData.columns().size(); col++) {
+            rows = Math.max(rows, tableData.rowsOf(col));
+            cells += tableData.rowsOf(col);
+        }
+        metrics.record(XlsMetrics.ROWS_WRITTEN, "rows", tags, rows);
+        metrics.record(XlsMetrics.CELLS_WRITTEN, "cells", tags, cells);
+    }
+
+}
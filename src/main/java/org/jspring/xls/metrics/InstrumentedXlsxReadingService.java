@@ -0,0 +1,67 @@
+package org.jspring.xls.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.WorkbookPool;
+import org.jspring.xls.service.XlsxReadingService;
+
+/**
+ * A {@link XlsxReadingService} timing the template loads and estimating the heap taken by each loaded workbook
+ * from the bytes allocated while parsing it. The workbooks taken from a {@link WorkbookPool} are timed with the
+ * {@code pool} source and without heap estimate, they were parsed by the pool.
+ */
+public class InstrumentedXlsxReadingService extends XlsxReadingService {
+
+    private final XlsMetrics metrics;
+    private final boolean pooled;
+
+    public InstrumentedXlsxReadingService(String templatePath, TemplateCache templateCache, XlsMetrics metrics) {
+        this(templatePath, templateCache, null, metrics);
+    }
+
+    public InstrumentedXlsxReadingService(
+            String templatePath,
+            TemplateCache templateCache,
+            WorkbookPool workbookPool,
+            XlsMetrics metrics
+    ) {
+        super(templatePath, templateCache, workbookPool);
+        this.metrics = metrics;
+        this.pooled = workbookPool != null;
+    }
+
+    @Override
+    public XSSFWorkbook readFromTemplate(String templatePath) {
+        Tags tags = XlsMetrics.templateTags(templatePath);
+        if (pooled) {
+            return metrics.time(XlsMetrics.TEMPLATE_LOAD, tags.and("source", "pool"),
+                    () -> super.readFromTemplate(templatePath));
+        }
+        return metrics.time(XlsMetrics.TEMPLATE_LOAD, tags.and("source", "file"), () -> {
+            long allocatedBefore = XlsMetrics.allocatedBytes();
+            XSSFWorkbook workbook = super.readFromTemplate(templatePath);
+            recordHeapEstimate(tags, allocatedBefore);
+            return workbook;
+        });
+    }
+
+    @Override
+    public byte[] readTemplateBytes(String templatePath) {
+        return metrics.time(
+                XlsMetrics.TEMPLATE_LOAD,
+                XlsMetrics.templateTags(templatePath).and("source", "bytes"),
+                () -> super.readTemplateBytes(templatePath)
+        );
+    }
+
+    private void recordHeapEstimate(Tags tags, long allocatedBefore) {
+        if (allocatedBefore >= 0) {
+            // An upper bound: the garbage of the parsing is counted along with the workbook
+            metrics.record(XlsMetrics.WORKBOOK_HEAP_ESTIMATE, BaseUnits.BYTES, tags,
+                    XlsMetrics.allocatedBytes() - allocatedBefore);
+        }
+    }
+
+}
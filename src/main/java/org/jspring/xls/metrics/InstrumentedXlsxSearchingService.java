@@ -0,0 +1,35 @@
+package org.jspring.xls.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.apache.poi.ss.usermodel.Cell;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.service.XlsxSearchingService;
+
+import java.util.Optional;
+
+/**
+ * A {@link XlsxSearchingService} timing the searches, tagged with the sheet and the kind of search.
+ */
+public class InstrumentedXlsxSearchingService extends XlsxSearchingService {
+
+    private final XlsMetrics metrics;
+
+    public InstrumentedXlsxSearchingService(boolean indexed, XlsMetrics metrics) {
+        super(indexed);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> Optional<Cell> searchCellBySheetAndCoordinates(
+            SheetInfo sheetInfo,
+            CellCoordinates<T> cellCoordinates
+    ) {
+        return metrics.time(
+                XlsMetrics.SEARCH,
+                Tags.of("sheet", sheetInfo.sheetName(), "by", cellCoordinates.byCoordinates() ? "coordinates" : "value"),
+                () -> super.searchCellBySheetAndCoordinates(sheetInfo, cellCoordinates)
+        );
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.jspring.xls.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.utils.BufferPool;
+import org.jspring.xls.writer.DeflaterPool;
+import org.jspring.xls.writer.SheetRenderPool;
+import org.jspring.xls.writer.ZipCompression;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A {@link XlsxWritingService} timing the serialization of the workbooks and measuring the bytes produced,
+ * tagged with the target of the output and the kind of workbook.
+ */
+public class InstrumentedXlsxWritingService extends XlsxWritingService {
+
+    private final XlsMetrics metrics;
+
+    public InstrumentedXlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            XlsMetrics metrics
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, 1, metrics);
+    }
+
+    public InstrumentedXlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            XlsMetrics metrics
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism,
+                ZipCompression.DEFAULT, metrics);
+    }
+
+    public InstrumentedXlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression,
+            XlsMetrics metrics
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism, compression,
+                DeflaterPool.common(), metrics);
+    }
+
+    public InstrumentedXlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression,
+            DeflaterPool deflaterPool,
+            XlsMetrics metrics
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism, compression,
+                deflaterPool, SheetRenderPool.common(), metrics);
+    }
+
+    public InstrumentedXlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression,
+            DeflaterPool deflaterPool,
+            SheetRenderPool renderPool,
+            XlsMetrics metrics
+    ) {
+        super(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism, compression,
+                deflaterPool, renderPool);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Also measures {@link #writeFile(XSSFWorkbook, String)}, which writes through this method.
+     */
+    @Override
+    public void writeFile(XSSFWorkbook workbook, String fileName, ZipCompression compression) {
+        Tags tags = tags("file", workbook);
+        metrics.time(XlsMetrics.SERIALIZE, tags, () -> super.writeFile(workbook, fileName, compression));
+        recordFileSize(tags, fileName);
+    }
+
+    @Override
+    public void writeFile(SXSSFWorkbook workbook, String fileName) {
+        Tags tags = tags("file", workbook);
+        metrics.time(XlsMetrics.SERIALIZE, tags, () -> super.writeFile(workbook, fileName));
+        recordFileSize(tags, fileName);
+    }
+
+    @Override
+    public byte[] writeAsByteArray(XSSFWorkbook workbook) {
+        Tags tags = tags("bytes", workbook);
+        byte[] content = metrics.time(XlsMetrics.SERIALIZE, tags, () -> super.writeAsByteArray(workbook));
+        metrics.record(XlsMetrics.BYTES_WRITTEN, BaseUnits.BYTES, tags, content.length);
+        return content;
+    }
+
+    @Override
+    public byte[] writeAsByteArray(SXSSFWorkbook workbook) {
+        Tags tags = tags("bytes", workbook);
+        byte[] content = metrics.time(XlsMetrics.SERIALIZE, tags, () -> super.writeAsByteArray(workbook));
+        metrics.record(XlsMetrics.BYTES_WRITTEN, BaseUnits.BYTES, tags, content.length);
+        return content;
+    }
+
+    /**
+     * Also measures {@link #writeTo(Workbook, OutputStream)} and
+     * {@link #writeTo(Workbook, java.nio.channels.WritableByteChannel)}, which write through this method.
+     */
+    @Override
+    public void writeTo(Workbook workbook, OutputStream out, ZipCompression compression) {
+        Tags tags = tags("stream", workbook);
+        CountingOutputStream counting = new CountingOutputStream(out);
+        metrics.time(XlsMetrics.SERIALIZE, tags, () -> super.writeTo(workbook, counting, compression));
+        metrics.record(XlsMetrics.BYTES_WRITTEN, BaseUnits.BYTES, tags, counting.count);
+    }
+
+    private void recordFileSize(Tags tags, String fileName) {
+        try {
+            metrics.record(XlsMetrics.BYTES_WRITTEN, BaseUnits.BYTES, tags, Files.size(Path.of(fileName)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Tags tags(String target, Workbook workbook) {
+        return Tags.of("target", target, "workbook", workbook instanceof SXSSFWorkbook ? "streaming" : "in_memory");
+    }
+
+    /**
+     * Counts the bytes going through to the wrapped stream, without closing it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+}
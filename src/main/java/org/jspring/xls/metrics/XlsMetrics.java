@@ -0,0 +1,120 @@
+package org.jspring.xls.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the meters of the xlsx services to a {@link MeterRegistry}.
+ * Timers measure each stage of an export, distribution summaries its volume; meters are tagged with
+ * the template file name and the stage, or the sheet when the template is not known at that stage.
+ */
+public class XlsMetrics {
+
+    public static final String TEMPLATE_LOAD = "xlsx.template.load";
+    public static final String SEARCH = "xlsx.search";
+    public static final String CELLS_WRITE = "xlsx.cells.write";
+    public static final String SERIALIZE = "xlsx.serialize";
+    public static final String OPERATION = "xlsx.operation";
+    public static final String ROWS_WRITTEN = "xlsx.rows.written";
+    public static final String CELLS_WRITTEN = "xlsx.cells.written";
+    public static final String BYTES_WRITTEN = "xlsx.bytes.written";
+    public static final String WORKBOOK_HEAP_ESTIMATE = "xlsx.workbook.heap.estimate";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final MeterRegistry registry;
+
+    public XlsMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records the duration of a task in a timer, tagged with the outcome of the task.
+     *
+     * @param name The name of the timer.
+     * @param tags The tags of the timer, without the outcome.
+     * @param task The measured task.
+     * @param <T>  The type of the result of the task.
+     * @return The result of the task.
+     */
+    public <T> T time(String name, Tags tags, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = task.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(registry.timer(name, tags.and("outcome", outcome)));
+        }
+    }
+
+    /**
+     * Records the duration of a task without result in a timer, tagged with the outcome of the task.
+     *
+     * @param name The name of the timer.
+     * @param tags The tags of the timer, without the outcome.
+     * @param task The measured task.
+     */
+    public void time(String name, Tags tags, Runnable task) {
+        time(name, tags, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records an amount in a distribution summary.
+     *
+     * @param name     The name of the summary.
+     * @param baseUnit The unit of the amount, e.g. {@link BaseUnits#BYTES}.
+     * @param tags     The tags of the summary.
+     * @param amount   The recorded amount.
+     */
+    public void record(String name, String baseUnit, Tags tags, double amount) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(registry)
+                .record(amount);
+    }
+
+    /**
+     * Returns the tag identifying a template, its file name, so that the same template read from
+     * different directories is reported once and the tag values stay few.
+     *
+     * @param templatePath The path of the template file.
+     * @return The template tag.
+     */
+    public static Tags templateTags(String templatePath) {
+        Path fileName = Path.of(templatePath).getFileName();
+        return Tags.of("template", fileName != null ? fileName.toString() : templatePath);
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far, or -1 if the JVM does not track it.
+     * The difference between two calls estimates the heap taken by the objects built in between.
+     *
+     * @return The bytes allocated by the current thread, or -1.
+     */
+    static long allocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled()
+                ? THREADS.getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()
+                ? threads
+                : null;
+    }
+
+}
@@ -0,0 +1,216 @@
+package org.jspring.xls.reactive;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.DeferredSXSSFSheet;
+import org.apache.poi.xssf.streaming.DeferredSXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.jspring.xls.annotation.XlsColumn;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.mapping.BeanMapping;
+import org.jspring.xls.mapping.ColumnMapping;
+import org.jspring.xls.service.XlsxStyleService;
+import org.jspring.xls.writer.BeanRowWriter;
+import org.jspring.xls.writer.CellWriter;
+import org.jspring.xls.writer.CellWriters;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The ReactiveXlsxWritingService class writes the rows of a {@link Publisher} to a single sheet workbook
+ * emitted as a {@link Flux} of {@link DataBuffer}s, e.g. the body of a WebFlux response.
+ * <p>
+ * The workbook is a {@link DeferredSXSSFWorkbook}: the small parts of the package are written first and
+ * the rows of the sheet are generated while its part is being written, so the first buffers are emitted
+ * before the source completes. Rows are requested from the source {@code prefetch} at a time, as the
+ * output buffers are consumed, and neither the rows nor the file are held in memory. The texts are
+ * written inline and the date styles of the written types created up front, as the shared strings table and
+ * the styles are written before the rows are known. The styles are released from the style registry once the
+ * workbook is written, so that no export outlives its response.
+ * <p>
+ * The workbook is written on a thread of the given scheduler, {@link Schedulers#boundedElastic()} by default,
+ * since POI writes to a blocking {@link OutputStream}. Cancelling the output cancels the source.
+ */
+public class ReactiveXlsxWritingService {
+
+    public static final int DEFAULT_PREFETCH = 256;
+
+    private final int rowAccessWindowSize;
+    private final int prefetch;
+    private final int chunkSize;
+    private final DataBufferFactory bufferFactory;
+    private final Scheduler scheduler;
+    private final XlsxStyleService styleService;
+
+    public ReactiveXlsxWritingService(int rowAccessWindowSize, int chunkSize, XlsxStyleService styleService) {
+        this(rowAccessWindowSize, DEFAULT_PREFETCH, chunkSize, DefaultDataBufferFactory.sharedInstance,
+                Schedulers.boundedElastic(), styleService);
+    }
+
+    /**
+     * @param rowAccessWindowSize The number of rows kept in memory before they are written to the output.
+     * @param prefetch            The number of rows requested from the source at a time.
+     * @param chunkSize           The size of the emitted buffers.
+     * @param bufferFactory       The factory of the emitted buffers.
+     * @param scheduler           The scheduler running the blocking writes.
+     * @param styleService        The registry of the date styles of the written dates.
+     */
+    public ReactiveXlsxWritingService(
+            int rowAccessWindowSize,
+            int prefetch,
+            int chunkSize,
+            DataBufferFactory bufferFactory,
+            Scheduler scheduler,
+            XlsxStyleService styleService
+    ) {
+        this.rowAccessWindowSize = rowAccessWindowSize;
+        this.prefetch = prefetch;
+        this.chunkSize = chunkSize;
+        this.bufferFactory = bufferFactory;
+        this.scheduler = scheduler;
+        this.styleService = styleService;
+    }
+
+    /**
+     * Writes records or beans annotated with {@link XlsColumn}, one object per row, below a row of column headers.
+     *
+     * @param rows      The objects to write.
+     * @param type      The class of the objects.
+     * @param sheetName The name of the sheet.
+     * @return The content of the xlsx file, written as the buffers are consumed.
+     */
+    public <T> Flux<DataBuffer> write(Publisher<? extends T> rows, Class<T> type, String sheetName) {
+        return write(rows, sheetName, cellWriters -> {
+            BeanRowWriter<T> rowWriter = new BeanRowWriter<>(type, cellWriters);
+            return new RowFiller<T>() {
+                @Override
+                public int writeHeader(SXSSFSheet sheet) {
+                    rowWriter.writeHeader(sheet.createRow(0), 0);
+                    return 1;
+                }
+
+                @Override
+                public void write(Row row, T value) {
+                    rowWriter.write(row, 0, value);
+                }
+
+                @Override
+                public List<Class<?>> valueTypes() {
+                    return BeanMapping.of(type).columns().stream()
+                            .<Class<?>>map(ColumnMapping::type)
+                            .toList();
+                }
+            };
+        });
+    }
+
+    /**
+     * Writes rows given as the list of their cell values, from the first column.
+     * Values can be of any type supported by {@link CellWriters}.
+     *
+     * @param rows      The values of the rows.
+     * @param sheetName The name of the sheet.
+     * @return The content of the xlsx file, written as the buffers are consumed.
+     */
+    public Flux<DataBuffer> writeRows(Publisher<? extends List<?>> rows, String sheetName) {
+        return write(rows, sheetName, cellWriters -> {
+            CellWriter writer = cellWriters.generic();
+            return (row, values) -> {
+                for (int column = 0; column < values.size(); column++) {
+                    writer.write(row.createCell(column), values.get(column));
+                }
+            };
+        });
+    }
+
+    private <T> Flux<DataBuffer> write(
+            Publisher<? extends T> rows,
+            String sheetName,
+            RowFillerFactory<T> fillerFactory
+    ) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(
+                out -> writeWorkbook(rows, sheetName, fillerFactory, out),
+                bufferFactory,
+                scheduler::schedule,
+                chunkSize
+        ));
+    }
+
+    private <T> void writeWorkbook(
+            Publisher<? extends T> rows,
+            String sheetName,
+            RowFillerFactory<T> fillerFactory,
+            OutputStream out
+    ) {
+        DeferredSXSSFWorkbook workbook = new DeferredSXSSFWorkbook(rowAccessWindowSize);
+        try {
+            DeferredSXSSFSheet sheet = workbook.createSheet(sheetName);
+            CellWriters cellWriters = new CellWriters(StringStrategy.INLINE, styleService);
+            RowFiller<T> filler = fillerFactory.create(cellWriters);
+            // The styles are written before the rows are generated
+            cellWriters.createDateStyles(workbook, filler.valueTypes());
+            sheet.setRowGenerator(target -> generateRows(rows, filler, target));
+            workbook.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            styleService.release(workbook);
+            workbook.dispose();
+        }
+    }
+
+    private <T> void generateRows(Publisher<? extends T> rows, RowFiller<T> filler, SXSSFSheet sheet) {
+        int rowNumber = filler.writeHeader(sheet);
+        // Closing the stream cancels the source when the output fails or is cancelled
+        try (Stream<? extends T> source = Flux.from(rows).toStream(prefetch)) {
+            Iterator<? extends T> iterator = source.iterator();
+            while (iterator.hasNext()) {
+                filler.write(sheet.createRow(rowNumber++), iterator.next());
+            }
+        }
+    }
+
+    /**
+     * Writes the values of the rows, and the header row for the rows having one.
+     */
+    @FunctionalInterface
+    private interface RowFiller<T> {
+
+        void write(Row row, T value);
+
+        /**
+         * @return The number of header rows written above the values, none by default.
+         */
+        default int writeHeader(SXSSFSheet sheet) {
+            return 0;
+        }
+
+        /**
+         * @return The declared types of the written values, any type by default.
+         */
+        default List<Class<?>> valueTypes() {
+            return List.of(Object.class);
+        }
+    }
+
+    /**
+     * Creates the filler of a workbook, bound to the cell writers of this workbook.
+     */
+    @FunctionalInterface
+    private interface RowFillerFactory<T> {
+
+        RowFiller<T> create(CellWriters cellWriters);
+    }
+
+}
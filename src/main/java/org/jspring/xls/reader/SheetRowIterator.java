@@ -0,0 +1,210 @@
+package org.jspring.xls.reader;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.jspring.xls.domain.CellWrapper;
+import org.jspring.xls.domain.RowView;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Pulls the rows of a worksheet part one at a time with a StAX parser, so that only the current row
+ * is held in memory and the first rows are available before the whole sheet has been parsed.
+ * Formula cells expose their cached result and numeric cells with a date format are converted
+ * to {@link java.time.LocalDateTime}. Blank cells are reported as missing.
+ */
+public class SheetRowIterator implements Iterator<RowView>, Closeable {
+
+    private final InputStream sheetData;
+    private final XMLStreamReader reader;
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+    private RowView nextRow;
+    private int lastRowNumber = -1;
+
+    public SheetRowIterator(InputStream sheetData, SharedStrings sharedStrings, StylesTable styles) {
+        this.sheetData = sheetData;
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        try {
+            this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetData);
+        } catch (XMLStreamException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null) {
+            try {
+                nextRow = readRow();
+            } catch (XMLStreamException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return nextRow != null;
+    }
+
+    @Override
+    public RowView next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RowView row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    /**
+     * Closes the parser and the underlying sheet stream.
+     */
+    @Override
+    public void close() {
+        try {
+            reader.close();
+            sheetData.close();
+        } catch (XMLStreamException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private RowView readRow() throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == START_ELEMENT && "row".equals(reader.getLocalName())) {
+                return parseRow();
+            }
+        }
+        return null;
+    }
+
+    private RowView parseRow() throws XMLStreamException {
+        String reference = reader.getAttributeValue(null, "r");
+        int rowNumber = reference != null ? Integer.parseInt(reference) - 1 : lastRowNumber + 1;
+        lastRowNumber = rowNumber;
+
+        List<CellWrapper<?>> cells = new ArrayList<>();
+        int column = -1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == START_ELEMENT && "c".equals(reader.getLocalName())) {
+                String cellReference = reader.getAttributeValue(null, "r");
+                column = cellReference != null ? columnOf(cellReference) : column + 1;
+                CellWrapper<?> value = parseCell();
+                if (value != null) {
+                    while (cells.size() <= column) {
+                        cells.add(null);
+                    }
+                    cells.set(column, value);
+                }
+            } else if (event == END_ELEMENT && "row".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+        return new RowView(rowNumber, cells);
+    }
+
+    private CellWrapper<?> parseCell() throws XMLStreamException {
+        String type = reader.getAttributeValue(null, "t");
+        String style = reader.getAttributeValue(null, "s");
+        String value = null;
+        StringBuilder inlineText = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "v" -> value = reader.getElementText();
+                    case "t" -> {
+                        inlineText = inlineText != null ? inlineText : new StringBuilder();
+                        inlineText.append(reader.getElementText());
+                    }
+                    // Phonetic runs repeat the text of the cell
+                    case "rPh" -> skipElement();
+                    default -> {
+                    }
+                }
+            } else if (event == END_ELEMENT && "c".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            return inlineText != null ? new CellWrapper<>(CellType.STRING, inlineText.toString()) : null;
+        }
+        if (value == null) {
+            return null;
+        }
+
+        return switch (type != null ? type : "n") {
+            case "s" -> new CellWrapper<>(CellType.STRING,
+                    sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+            case "str" -> new CellWrapper<>(CellType.STRING, value);
+            case "b" -> new CellWrapper<>(CellType.BOOLEAN, "1".equals(value));
+            case "e" -> new CellWrapper<>(CellType.ERROR, value);
+            default -> numericValue(value, style);
+        };
+    }
+
+    private CellWrapper<?> numericValue(String value, String style) {
+        double number = Double.parseDouble(value);
+        if (style != null && isDateStyle(Integer.parseInt(style))) {
+            return new CellWrapper<>(CellType.NUMERIC, DateUtil.getLocalDateTime(number));
+        }
+        return new CellWrapper<>(CellType.NUMERIC, number);
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        if (styles == null) {
+            return false;
+        }
+        return dateStyles.computeIfAbsent(styleIndex, index -> {
+            XSSFCellStyle cellStyle = styles.getStyleAt(index);
+            return cellStyle != null
+                    && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+        });
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static int columnOf(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+}
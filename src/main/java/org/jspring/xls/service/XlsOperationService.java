@@ -1,13 +1,39 @@
 package org.jspring.xls.service;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.jspring.xls.builder.WorkbookOperation;
 import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.OperationResult;
 import org.jspring.xls.domain.SheetInfo;
 import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.StringStrategies;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.writer.ZipCompression;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
 
 public class XlsOperationService {
 
@@ -15,50 +41,282 @@ public class XlsOperationService {
     private final XlsxWritingService writingService;
     private final XlsxCellsWritingService cellsWritingService;
     private final XlsxSearchingService searchingService;
+    private final int parallelism;
+    private final boolean virtualThreads;
 
     public XlsOperationService(
             XlsxReadingService readingService,
             XlsxWritingService writingService,
             XlsxCellsWritingService cellsWritingService,
             XlsxSearchingService searchingService
+    ) {
+        this(readingService, writingService, cellsWritingService, searchingService,
+                Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    /**
+     * @param parallelism    The maximum number of operations of a batch executed at the same time.
+     * @param virtualThreads Whether the operations of a batch run on virtual threads instead of a pool of
+     *                       {@code parallelism} platform threads.
+     */
+    public XlsOperationService(
+            XlsxReadingService readingService,
+            XlsxWritingService writingService,
+            XlsxCellsWritingService cellsWritingService,
+            XlsxSearchingService searchingService,
+            int parallelism,
+            boolean virtualThreads
     ) {
         this.readingService = readingService;
         this.writingService = writingService;
         this.cellsWritingService = cellsWritingService;
         this.searchingService = searchingService;
+        this.parallelism = parallelism;
+        this.virtualThreads = virtualThreads;
     }
 
     public void execute(WorkbookOperation operation) {
         // Read the workbook from the template
-        XSSFWorkbook workbook = readingService.readFromTemplate(operation.getTemplatePath());
+        execute(operation, readingService.readFromTemplate(operation.getTemplatePath()));
+    }
+
+    /**
+     * Executes an operation and writes the resulting workbook to a stream, e.g. the body of an HTTP response,
+     * instead of saving it to its output path. The workbook is written through a pooled buffer, see
+     * {@link XlsxWritingService#writeTo(Workbook, OutputStream)}, and the stream is flushed but not closed.
+     *
+     * @param operation The operation to execute, its output path is ignored.
+     * @param out       The stream to write the workbook to.
+     */
+    public void execute(WorkbookOperation operation, OutputStream out) {
+        execute(
+                operation,
+                readingService.readFromTemplate(operation.getTemplatePath()),
+                workbook -> writingService.writeTo(workbook, out, resolveCompression(operation))
+        );
+    }
+
+    /**
+     * Executes a batch of operations concurrently, with at most the configured parallelism.
+     * Operations are grouped by template and each template file is read once for its whole group.
+     * The batch runs on virtual threads or on a pool of platform threads created for the call, depending on
+     * the configuration, and the method returns once every operation has completed.
+     *
+     * @param operations The operations to execute.
+     * @return The result of each operation, in the iteration order of the given collection.
+     */
+    public List<OperationResult> executeAll(Collection<WorkbookOperation> operations) {
+        try (ExecutorService executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(parallelism)) {
+            return executeAll(operations, executor);
+        }
+    }
+
+    /**
+     * Executes a batch of operations on the given executor, with at most the configured parallelism.
+     * Operations are grouped by template and each template file is read once for its whole group.
+     * A failed operation does not stop the others, its error is reported in its result, even when it is an
+     * {@link Error}.
+     *
+     * @param operations The operations to execute.
+     * @param executor   The executor running the operations.
+     * @return The result of each operation, in the iteration order of the given collection.
+     * @throws IllegalArgumentException if an operation has no template path, before any operation is executed
+     */
+    public List<OperationResult> executeAll(Collection<WorkbookOperation> operations, Executor executor) {
+        List<WorkbookOperation> ordered = List.copyOf(operations);
+        // Checked before any operation starts, a missing template path cannot be grouped
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).getTemplatePath() == null) {
+                throw new IllegalArgumentException("Operation " + i + " of the batch has no template path");
+            }
+        }
+        Map<String, List<Integer>> indexesByTemplate = IntStream.range(0, ordered.size())
+                .boxed()
+                .collect(groupingBy(i -> ordered.get(i).getTemplatePath(), LinkedHashMap::new, toList()));
+
+        List<CompletableFuture<OperationResult>> results = new ArrayList<>(
+                Collections.nCopies(ordered.size(), null)
+        );
+        // Bounds the running operations whatever the executor, including one thread per task
+        Semaphore permits = new Semaphore(parallelism);
+
+        indexesByTemplate.forEach((templatePath, indexes) -> {
+            byte[] template;
+            try {
+                template = readingService.readTemplateBytes(templatePath);
+            } catch (RuntimeException e) {
+                indexes.forEach(i -> results.set(i, completedFuture(new OperationResult(ordered.get(i), e))));
+                return;
+            }
+            for (int i : indexes) {
+                WorkbookOperation operation = ordered.get(i);
+                permits.acquireUninterruptibly();
+                try {
+                    results.set(i, supplyAsync(() -> executeWithPermit(operation, template, permits), executor));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    results.set(i, completedFuture(new OperationResult(operation, e)));
+                }
+            }
+        });
+
+        return results.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private OperationResult executeWithPermit(WorkbookOperation operation, byte[] template, Semaphore permits) {
+        try {
+            // Every operation writes to its own copy of the template
+            execute(operation, readingService.readFromByteArray(template));
+            return new OperationResult(operation, null);
+        } catch (Throwable e) {
+            // Errors too, e.g. a StackOverflowError, must not discard the results of the other operations
+            return new OperationResult(operation, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Searches the start point, writes the table data and saves the workbook of one operation.
+     *
+     * @param operation The operation to execute.
+     * @param workbook  The workbook read from the template of the operation, owned by this call.
+     */
+    protected void execute(WorkbookOperation operation, XSSFWorkbook workbook) {
+        execute(
+                operation,
+                workbook,
+                written -> saveAs(written, operation.getOutputPath(), resolveCompression(operation))
+        );
+    }
+
+    /**
+     * Searches the start point, writes the table data and hands the workbook of one operation to its output.
+     *
+     * @param operation The operation to execute.
+     * @param workbook  The workbook read from the template of the operation, owned by this call.
+     * @param output    Writes the populated workbook, the template workbook or the streaming workbook
+     *                  wrapping it, and disposes of a streaming workbook.
+     */
+    protected void execute(WorkbookOperation operation, XSSFWorkbook workbook, Consumer<Workbook> output) {
         SheetInfo sheetInfo = new SheetInfo(
                 workbook, operation.getStartSheetName()
         );
 
-        Optional<Cell> cell = searchingService.searchCellBySheetAndCoordinates(
-                sheetInfo,
-                new CellCoordinates<>(
-                        operation.getStartRow(),
-                        operation.getStartColumn(),
-                        operation.getSearchFor(),
-                        operation.getFilter()
-                )
+        // Fixed coordinates are already the start point, only a value needs to be searched
+        Optional<Cell> cell = operation.getSearchFor() == null
+                ? Optional.empty()
+                : searchingService.searchCellBySheetAndCoordinates(
+                        sheetInfo,
+                        new CellCoordinates<>(
+                                operation.getStartRow(),
+                                operation.getStartColumn(),
+                                operation.getSearchFor(),
+                                operation.getFilter()
+                        )
+                );
+
+        StartPoint startPoint = new StartPoint(
+                cell.map(Cell::getRowIndex)
+                        .orElseGet(operation::getStartRow),
+                cell.map(Cell::getColumnIndex)
+                        .orElseGet(operation::getStartColumn)
         );
 
+        if (resolveWriteMode(operation) == WriteMode.STREAMING) {
+            executeStreaming(operation, sheetInfo, startPoint, output);
+            return;
+        }
+
         // Perform the table write operation
         cellsWritingService.writeTopToBottom(
-                sheetInfo,
-                new StartPoint(
-                        cell.map(Cell::getRowIndex)
-                                .orElseGet(operation::getStartRow),
-                        cell.map(Cell::getColumnIndex)
-                                .orElseGet(operation::getStartColumn)
-                ),
-                operation.getTableData()
+                sheetInfo.getSheet(),
+                startPoint,
+                operation.getTableData(),
+                resolveStringStrategies(operation)
         );
+        // The written cells are not in the value index of the sheet
+        searchingService.invalidateIndex(sheetInfo);
 
         // Save the workbook
-        writingService.writeFile(workbook, operation.getOutputPath());
+        output.accept(workbook);
+    }
+
+    private void executeStreaming(
+            WorkbookOperation operation,
+            SheetInfo sheetInfo,
+            StartPoint startPoint,
+            Consumer<Workbook> output
+    ) {
+        // Template rows stay in the XSSF part, the streaming sheet can only append below them
+        int lastTemplateRow = sheetInfo.getSheet().getLastRowNum();
+        if (startPoint.startRow() <= lastTemplateRow) {
+            throw new IllegalStateException(
+                    "Streaming writes must start below the last template row (" + lastTemplateRow
+                            + ") of sheet '" + sheetInfo.sheetName() + "', requested row " + startPoint.startRow()
+            );
+        }
+
+        searchingService.invalidateIndex(sheetInfo);
+        // Streaming cells cannot choose how their text is stored, the shared strings table is used for all or none
+        StringStrategies stringStrategies = resolveStringStrategies(
+                operation, cellsWritingService.streamingStringStrategy()
+        );
+        SXSSFWorkbook streamingWorkbook = writingService.toStreamingWorkbook(
+                sheetInfo.workbook(),
+                stringStrategies.allShared(operation.getTableData()),
+                resolveCompression(operation)
+        );
+        try {
+            cellsWritingService.writeTopToBottom(
+                    streamingWorkbook.getSheet(sheetInfo.sheetName()),
+                    startPoint,
+                    operation.getTableData(),
+                    stringStrategies
+            );
+
+            output.accept(streamingWorkbook);
+        } finally {
+            streamingWorkbook.dispose();
+        }
+    }
+
+    private void saveAs(Workbook workbook, String outputPath, ZipCompression compression) {
+        // A streaming workbook is already set up with the compression of the operation
+        if (workbook instanceof SXSSFWorkbook streamingWorkbook) {
+            writingService.writeFile(streamingWorkbook, outputPath);
+        } else {
+            writingService.writeFile((XSSFWorkbook) workbook, outputPath, compression);
+        }
+    }
+
+    private ZipCompression resolveCompression(WorkbookOperation operation) {
+        return operation.getCompression() != null ? operation.getCompression() : writingService.compression();
+    }
+
+    private StringStrategies resolveStringStrategies(WorkbookOperation operation) {
+        return resolveStringStrategies(operation, cellsWritingService.defaultStringStrategy());
+    }
+
+    private StringStrategies resolveStringStrategies(WorkbookOperation operation, StringStrategy defaultStrategy) {
+        return new StringStrategies(
+                operation.getStringStrategy() != null ? operation.getStringStrategy() : defaultStrategy,
+                operation.getColumnStringStrategies()
+        );
+    }
+
+    /**
+     * Returns the write mode of an operation, or the default write mode when the operation does not choose one.
+     *
+     * @param operation The operation.
+     * @return The write mode used to execute the operation.
+     */
+    protected WriteMode resolveWriteMode(WorkbookOperation operation) {
+        return operation.getWriteMode() != null ? operation.getWriteMode() : writingService.defaultWriteMode();
     }
 
 }
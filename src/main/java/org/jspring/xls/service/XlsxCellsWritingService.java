@@ -3,15 +3,85 @@ package org.jspring.xls.service;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.jspring.xls.domain.ColumnData;
+import org.jspring.xls.domain.ColumnarTableData;
 import org.jspring.xls.domain.SheetInfo;
 import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.StringStrategies;
 import org.jspring.xls.domain.TableData;
-import org.jspring.xls.utils.CellUtils;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.writer.CellWriter;
+import org.jspring.xls.writer.CellWriters;
 
 import java.util.List;
 
 public class XlsxCellsWritingService {
 
+    private final StringStrategy defaultStringStrategy;
+    private final StringStrategy streamingStringStrategy;
+    private final XlsxStyleService styleService;
+
+    public XlsxCellsWritingService() {
+        this(StringStrategy.SHARED, StringStrategy.INLINE, new XlsxStyleService());
+    }
+
+    public XlsxCellsWritingService(StringStrategy defaultStringStrategy) {
+        this(defaultStringStrategy, new XlsxStyleService());
+    }
+
+    /**
+     * @param defaultStringStrategy The strategy storing the texts when a write does not choose one.
+     * @param styleService          The registry of the date styles of the written dates.
+     */
+    public XlsxCellsWritingService(StringStrategy defaultStringStrategy, XlsxStyleService styleService) {
+        this(defaultStringStrategy, defaultStringStrategy, styleService);
+    }
+
+    /**
+     * @param defaultStringStrategy   The strategy storing the texts when a write does not choose one.
+     * @param streamingStringStrategy The strategy storing the texts when a streaming write does not choose one,
+     *                                usually {@link StringStrategy#INLINE} so that the shared strings table,
+     *                                which stays in memory, does not grow with the streamed rows.
+     * @param styleService            The registry of the date styles of the written dates.
+     */
+    public XlsxCellsWritingService(
+            StringStrategy defaultStringStrategy,
+            StringStrategy streamingStringStrategy,
+            XlsxStyleService styleService
+    ) {
+        this.defaultStringStrategy = defaultStringStrategy;
+        this.streamingStringStrategy = streamingStringStrategy;
+        this.styleService = styleService;
+    }
+
+    /**
+     * Returns the string strategy used when a write does not choose one.
+     *
+     * @return the default {@link StringStrategy}
+     */
+    public StringStrategy defaultStringStrategy() {
+        return defaultStringStrategy;
+    }
+
+    /**
+     * Returns the string strategy used when a streaming write does not choose one.
+     *
+     * @return the default {@link StringStrategy} of the streaming writes
+     */
+    public StringStrategy streamingStringStrategy() {
+        return streamingStringStrategy;
+    }
+
+    /**
+     * Drops the date styles registered for a workbook once it is written, rather than when it is collected.
+     *
+     * @param workbook the written workbook, or the streaming workbook wrapping it
+     */
+    public void releaseStyles(Workbook workbook) {
+        styleService.release(workbook);
+    }
+
    /* private final Workbook workbook;
     private final Sheet sheet;
 
@@ -26,38 +96,131 @@ public class XlsxCellsWritingService {
             StartPoint startPoint,
             TableData<T> tableData
     ) {
+        writeTopToBottom(sheetInfo.getSheet(), startPoint, tableData);
+    }
+
+    /**
+     * Writes the table values column by column, filling {@code maxRows} rows before moving to the next column.
+     * Cells are visited row by row, so every row is created once and never revisited: this keeps the write
+     * compatible with streaming sheets, where rows that left the access window cannot be touched again.
+     * Texts, numbers, booleans, dates and nulls are supported; the writer of each column is resolved once
+     * from its first value, see {@link CellWriters}.
+     *
+     * @param sheet      The sheet to write to, either in memory or streaming.
+     * @param startPoint The top left cell of the table.
+     * @param tableData  The values and the size of the table.
+     */
+    public <T> void writeTopToBottom(
+            Sheet sheet,
+            StartPoint startPoint,
+            TableData<T> tableData
+    ) {
+        writeTopToBottom(sheet, startPoint, tableData, StringStrategies.of(defaultStringStrategy));
+    }
+
+    /**
+     * Writes the table values column by column as {@link #writeTopToBottom(Sheet, StartPoint, TableData)},
+     * storing the texts of each column with its own string strategy.
+     *
+     * @param sheet            The sheet to write to, either in memory or streaming.
+     * @param startPoint       The top left cell of the table.
+     * @param tableData        The values and the size of the table.
+     * @param stringStrategies The string strategies of the columns of the table.
+     */
+    public <T> void writeTopToBottom(
+            Sheet sheet,
+            StartPoint startPoint,
+            TableData<T> tableData,
+            StringStrategies stringStrategies
+    ) {
 
-        Sheet sheet = sheetInfo.getSheet();
         List<T> values = tableData.values();
         int maxRows = tableData.maxRows();
         int maxCols = tableData.maxCols();
 
         // Calculate the maximum size and resize the list of values if necessary
         int maxSize = maxRows * maxCols;
-        List<T> resizedValues = values.size() > maxSize ? values.subList(0, maxSize) : values;
+        int size = Math.min(values.size(), maxSize);
+        int usedRows = Math.min(size, maxRows);
+
+        // The writer plan of the table, one writer per column
+        CellWriter[] columnWriters = new CellWriter[Math.max(maxCols, 0)];
+        for (int col = 0; col < columnWriters.length; col++) {
+            int from = Math.min(col * maxRows, size);
+            columnWriters[col] = new CellWriters(stringStrategies.resolve(col, tableData), styleService)
+                    .forColumn(values.subList(from, Math.min(from + maxRows, size)));
+        }
+
+        for (int rowOffset = 0; rowOffset < usedRows; rowOffset++) {
+            int currentRow = startPoint.startRow() + rowOffset;
+            Row row = sheet.getRow(currentRow);
+            if (row == null) {
+                row = sheet.createRow(currentRow);
+            }
 
-        int currentRow = startPoint.startRow();
-        int currentCol = startPoint.startColumn();
-        for (T value : resizedValues) {
+            // The value of a column sits maxRows positions after the value of the previous column
+            for (int index = rowOffset, col = 0; index < size; index += maxRows, col++) {
+                Cell newCell = row.createCell(startPoint.startColumn() + col);
+                columnWriters[col].write(newCell, values.get(index));
+            }
+        }
+    }
 
+    /**
+     * Writes a table of primitive columns side by side, each column from top to bottom.
+     * Values are written straight from their arrays, without boxing, which keeps large numeric tables
+     * from allocating an object per value. Cells are visited row by row, as in
+     * {@link #writeTopToBottom(Sheet, StartPoint, TableData)}.
+     *
+     * @param sheet            The sheet to write to, either in memory or streaming.
+     * @param startPoint       The top left cell of the table.
+     * @param tableData        The columns of the table.
+     * @param stringStrategies The string strategies of the text columns of the table.
+     */
+    public void writeColumns(
+            Sheet sheet,
+            StartPoint startPoint,
+            ColumnarTableData tableData,
+            StringStrategies stringStrategies
+    ) {
+
+        List<ColumnData> columns = tableData.columns();
+        int[] columnRows = new int[columns.size()];
+        StringStrategy[] columnStrategies = new StringStrategy[columns.size()];
+        int usedRows = 0;
+        for (int col = 0; col < columns.size(); col++) {
+            columnRows[col] = tableData.rowsOf(col);
+            columnStrategies[col] = columns.get(col).resolve(stringStrategies.strategyOf(col));
+            usedRows = Math.max(usedRows, columnRows[col]);
+        }
+
+        for (int rowOffset = 0; rowOffset < usedRows; rowOffset++) {
+            int currentRow = startPoint.startRow() + rowOffset;
             Row row = sheet.getRow(currentRow);
             if (row == null) {
                 row = sheet.createRow(currentRow);
             }
-            Cell newCell = row.createCell(currentCol);
-            CellUtils.writeValue(newCell, value);
-
-            currentRow++;
-            if (currentRow >= startPoint.startRow() + maxRows) {
-                currentRow = startPoint.startRow();
-                currentCol++;
-                if (currentCol >= startPoint.startColumn() + maxCols) {
-                    currentCol = startPoint.startColumn(); // Wrap around to the initial column
+
+            for (int col = 0; col < columnRows.length; col++) {
+                if (rowOffset < columnRows[col]) {
+                    Cell newCell = row.createCell(startPoint.startColumn() + col);
+                    columns.get(col).write(newCell, rowOffset, columnStrategies[col]);
                 }
             }
         }
     }
 
+    /**
+     * Writes a table of primitive columns with the default string strategy,
+     * see {@link #writeColumns(Sheet, StartPoint, ColumnarTableData, StringStrategies)}.
+     *
+     * @param sheet      The sheet to write to, either in memory or streaming.
+     * @param startPoint The top left cell of the table.
+     * @param tableData  The columns of the table.
+     */
+    public void writeColumns(Sheet sheet, StartPoint startPoint, ColumnarTableData tableData) {
+        writeColumns(sheet, startPoint, tableData, StringStrategies.of(defaultStringStrategy));
+    }
 
    /* public void writeTopToBottom(List<String> values, int maxRows) {
         int colIndex = 0;
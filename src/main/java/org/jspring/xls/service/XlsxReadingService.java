@@ -1,10 +1,38 @@
 package org.jspring.xls.service;
 
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.annotation.XlsColumn;
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.WorkbookPool;
+import org.jspring.xls.domain.RowView;
+import org.jspring.xls.mapping.RowBinder;
+import org.jspring.xls.reader.SheetRowIterator;
+import org.jspring.xls.utils.ByteBufferInputStream;
+import org.xml.sax.SAXException;
 
 import java.io.ByteArrayInputStream;
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -13,8 +41,34 @@ import java.io.IOException;
 public class XlsxReadingService {
 
     private final String templatePath;
+    private final TemplateCache templateCache;
+    private final WorkbookPool workbookPool;
+
     public XlsxReadingService(String templatePath) {
+        this(templatePath, null);
+    }
+
+    /**
+     * Creates a reading service that serves the templates from the given cache.
+     *
+     * @param templatePath  The path of the default template.
+     * @param templateCache The cache of the template files, or null to read them from disk on every request.
+     */
+    public XlsxReadingService(String templatePath, TemplateCache templateCache) {
+        this(templatePath, templateCache, null);
+    }
+
+    /**
+     * Creates a reading service that takes the template workbooks from a pool of parsed workbooks.
+     *
+     * @param templatePath  The path of the default template.
+     * @param templateCache The cache of the template files, or null to read them from disk on every request.
+     * @param workbookPool  The pool of template workbooks, or null to parse a template on every request.
+     */
+    public XlsxReadingService(String templatePath, TemplateCache templateCache, WorkbookPool workbookPool) {
         this.templatePath = templatePath;
+        this.templateCache = templateCache;
+        this.workbookPool = workbookPool;
     }
 
     /**
@@ -24,28 +78,61 @@ public class XlsxReadingService {
      * @throws RuntimeException if an IOException occurs while reading the template file.
      */
     public XSSFWorkbook readFromTemplate() {
-        try (FileInputStream inputStream = new FileInputStream(templatePath)) {
-            return new XSSFWorkbook(inputStream);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return readFromTemplate(templatePath);
     }
 
     /**
      * Reads an {@link XSSFWorkbook} from a template file.
+     * The file is memory-mapped rather than copied through a stream buffer, so its pages are shared
+     * through the OS page cache by all the requests using the same template.
+     * When a template cache is configured the file is read only when it is not cached or has changed,
+     * and every call still returns a new, independent workbook. When a workbook pool is configured the
+     * workbook is taken from the pool, see {@link WorkbookPool#checkout(String)}.
      *
      * @param templatePath The path of the template file.
      * @return The {@link XSSFWorkbook} read from the template file.
      * @throws RuntimeException if an {@link IOException} occurs while reading the template file.
      */
     public XSSFWorkbook readFromTemplate(String templatePath) {
-        try (FileInputStream inputStream = new FileInputStream(templatePath)) {
-            return new XSSFWorkbook(inputStream);
+        if (workbookPool != null) {
+            return workbookPool.checkout(templatePath);
+        }
+        if (templateCache != null) {
+            return readCachedTemplate(templatePath);
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(templatePath), StandardOpenOption.READ)) {
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new XSSFWorkbook(new ByteBufferInputStream(content));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Opens an {@link XSSFWorkbook} in read-only mode directly on the file.
+     * The zip entries are accessed randomly and inflated only while their part is parsed, instead of
+     * buffering the whole inflated package in memory first, which makes it the cheapest way to load
+     * large workbooks that only need to be read.
+     * The returned workbook cannot be written and must be closed to release the file.
+     *
+     * @param path The path of the xlsx file.
+     * @return The read-only {@link XSSFWorkbook}.
+     * @throws RuntimeException if the file cannot be opened or parsed.
+     */
+    public XSSFWorkbook openReadOnly(String path) {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(new File(path), PackageAccess.READ);
+            return new XSSFWorkbook(opcPackage);
+        } catch (IOException | OpenXML4JException e) {
+            revert(opcPackage);
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            revert(opcPackage);
+            throw e;
+        }
+    }
+
     /**
      * Reads an XSSFWorkbook from a byte array.
      *
@@ -61,4 +148,145 @@ public class XlsxReadingService {
         }
     }
 
+    /**
+     * Reads the raw content of a template file, from the template cache when one is configured.
+     * The content can be parsed any number of times with {@link #readFromByteArray(byte[])}, so that
+     * many workbooks are built from a single read of the file.
+     *
+     * @param templatePath The path of the template file.
+     * @return The content of the template file.
+     * @throws RuntimeException if an {@link IOException} occurs while reading the template file.
+     */
+    public byte[] readTemplateBytes(String templatePath) {
+        try {
+            return templateCache != null
+                    ? templateCache.get(templatePath)
+                    : Files.readAllBytes(Path.of(templatePath));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private XSSFWorkbook readCachedTemplate(String templatePath) {
+        try {
+            return readFromByteArray(templateCache.get(templatePath));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Streams the rows of a sheet without loading the workbook in memory.
+     * The sheet XML is parsed lazily while the stream is consumed, so only the current row and the
+     * shared strings table are kept on the heap. The returned stream holds the file open and must be closed,
+     * preferably with a try-with-resources block.
+     *
+     * @param path      The path of the xlsx file.
+     * @param sheetName The name of the sheet to read.
+     * @return A sequential, ordered {@link Stream} of {@link RowView}.
+     * @throws IllegalArgumentException if the workbook has no sheet with the given name.
+     * @throws RuntimeException if the file cannot be opened or parsed.
+     */
+    public Stream<RowView> streamRows(String path, String sheetName) {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(new File(path), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(opcPackage);
+            SheetRowIterator rows = new SheetRowIterator(
+                    findSheetData(reader, sheetName),
+                    new ReadOnlySharedStringsTable(opcPackage),
+                    reader.getStylesTable()
+            );
+
+            OPCPackage openedPackage = opcPackage;
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL),
+                    false
+            ).onClose(() -> {
+                rows.close();
+                openedPackage.revert();
+            });
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            revert(opcPackage);
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            revert(opcPackage);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the rows of an in-memory sheet as instances of a record or a bean annotated with {@link XlsColumn}.
+     * With a header row, the first row of the sheet gives the column of each property, otherwise the properties
+     * are read from the first columns, in the column order of an export. Blank rows are skipped.
+     *
+     * @param sheet     The sheet to read.
+     * @param type      The class of the instances.
+     * @param hasHeader Whether the first row of the sheet holds the headers of the columns.
+     * @return The instances, in row order.
+     * @throws IllegalArgumentException if a cell cannot be converted to the type of its property.
+     */
+    public <T> List<T> readRecords(Sheet sheet, Class<T> type, boolean hasHeader) {
+        List<T> records = new ArrayList<>();
+        RowBinder<T> binder = hasHeader ? null : RowBinder.byIndex(type, 0);
+        for (Row row : sheet) {
+            if (binder == null) {
+                binder = RowBinder.byHeader(type, row);
+            } else if (!binder.isBlank(row)) {
+                records.add(binder.bind(row));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Streams the rows of a sheet as instances of a record or a bean annotated with {@link XlsColumn}, without
+     * loading the workbook in memory, see {@link #streamRows(String, String)} and
+     * {@link #readRecords(Sheet, Class, boolean)}. The returned stream must be closed.
+     *
+     * @param path      The path of the xlsx file.
+     * @param sheetName The name of the sheet to read.
+     * @param type      The class of the instances.
+     * @param hasHeader Whether the first row of the sheet holds the headers of the columns.
+     * @return A sequential, ordered {@link Stream} of instances.
+     */
+    public <T> Stream<T> streamRecords(String path, String sheetName, Class<T> type, boolean hasHeader) {
+        Stream<RowView> rows = streamRows(path, sheetName);
+        try {
+            Iterator<RowView> iterator = rows.iterator();
+            RowBinder<T> binder = !hasHeader ? RowBinder.byIndex(type, 0)
+                    : iterator.hasNext() ? RowBinder.byHeader(type, iterator.next())
+                    : null;
+            if (binder == null) {
+                rows.close();
+                return Stream.empty();
+            }
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                    false
+            ).filter(row -> !binder.isBlank(row)).map(binder::bind).onClose(rows::close);
+        } catch (RuntimeException e) {
+            rows.close();
+            throw e;
+        }
+    }
+
+    private InputStream findSheetData(XSSFReader reader, String sheetName) throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (sheets.hasNext()) {
+            InputStream sheetData = sheets.next();
+            if (sheets.getSheetName().equals(sheetName)) {
+                return sheetData;
+            }
+            sheetData.close();
+        }
+        throw new IllegalArgumentException("Sheet not found: " + sheetName);
+    }
+
+    private void revert(OPCPackage opcPackage) {
+        if (opcPackage != null) {
+            opcPackage.revert();
+        }
+    }
+
 }
@@ -1,15 +1,41 @@
 package org.jspring.xls.service;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.jspring.xls.domain.CellCoordinates;
 import org.jspring.xls.domain.CellSearch;
 import org.jspring.xls.domain.CellWrapper;
 import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.SheetValueIndex;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+
+import static java.util.Collections.synchronizedMap;
 
 public class XlsxSearchingService {
 
+    private final boolean indexed;
+    // Keyed weakly so that the index of a sheet is dropped together with its workbook, the indexes do not refer to
+    // their sheet
+    private final Map<Sheet, SheetValueIndex> indexes = synchronizedMap(new WeakHashMap<>());
+
+    public XlsxSearchingService() {
+        this(false);
+    }
+
+    /**
+     * @param indexed Whether searches by value use a {@link SheetValueIndex} built once per sheet
+     *                instead of scanning the whole sheet on each search.
+     */
+    public XlsxSearchingService(boolean indexed) {
+        this.indexed = indexed;
+    }
+
     /**
      * Searches for a cell in a given sheet based on the sheet info and cell coordinates.
      *
@@ -23,11 +49,94 @@ public class XlsxSearchingService {
             CellCoordinates<T> cellCoordinates
     ) {
 
+        if (indexed && !cellCoordinates.byCoordinates() && cellCoordinates.byValue()) {
+            XSSFSheet sheet = sheetInfo.getSheet();
+            return indexOf(sheet).find(sheet, cellCoordinates);
+        }
+
         return new CellSearch<>(sheetInfo, cellCoordinates)
                 .search();
 
     }
 
+    /**
+     * Resolves many cell coordinates of the same sheet in one call, e.g. the fixed anchors of a report template.
+     * The sheet is resolved once; coordinates are looked up directly and values are searched as in
+     * {@link #searchCellBySheetAndCoordinates(SheetInfo, CellCoordinates)}, sharing the index of the sheet when enabled.
+     *
+     * @param sheetInfo       The sheet info containing the workbook and sheet name.
+     * @param cellCoordinates The list of cell coordinates to resolve.
+     * @return The found cells, in the order of the given coordinates, with an empty optional for each cell not found.
+     */
+    public List<Optional<Cell>> searchCellsBySheetAndCoordinates(
+            SheetInfo sheetInfo,
+            List<CellCoordinates<?>> cellCoordinates
+    ) {
+
+        XSSFSheet sheet = sheetInfo.getSheet();
+        List<Optional<Cell>> cells = new ArrayList<>(cellCoordinates.size());
+        for (CellCoordinates<?> coordinates : cellCoordinates) {
+            if (coordinates.byCoordinates()) {
+                cells.add(new CellSearch<>(sheetInfo, coordinates).searchByCoordinates(sheet));
+            } else {
+                cells.add(searchCellBySheetAndCoordinates(sheetInfo, coordinates));
+            }
+        }
+        return cells;
+
+    }
+
+    /**
+     * Searches for a cell by value in a given sheet, scanning ranges of rows in parallel.
+     * Returns the same cell as {@link #searchCellBySheetAndCoordinates(SheetInfo, CellCoordinates)} without an index,
+     * and is meant for large sheets where most searches visit the whole sheet.
+     *
+     * @param sheetInfo        The sheet info containing the workbook and sheet name.
+     * @param cellCoordinates  The cell coordinates containing the cell value and filter.
+     * @param <T>              The type of the cell value.
+     * @return An optional containing the found cell, or an empty optional if the cell is not found.
+     */
+    public <T> Optional<Cell> parallelSearchCellBySheetAndCoordinates(
+            SheetInfo sheetInfo,
+            CellCoordinates<T> cellCoordinates
+    ) {
+
+        return new CellSearch<>(sheetInfo, cellCoordinates)
+                .parallelSearch();
+
+    }
+
+    /**
+     * Returns the index of a sheet, building it outside the lock of the map so that the indexes of other sheets
+     * stay available meanwhile. Two threads may build the index of the same sheet, the first one stored is kept.
+     */
+    private SheetValueIndex indexOf(Sheet sheet) {
+        SheetValueIndex index = indexes.get(sheet);
+        if (index != null) {
+            return index;
+        }
+        SheetValueIndex built = SheetValueIndex.build(sheet);
+        SheetValueIndex stored = indexes.putIfAbsent(sheet, built);
+        return stored != null ? stored : built;
+    }
+
+    /**
+     * Drops the value index of a sheet, so that the next search by value sees the cells written since
+     * the index was built. Must be called after writing to a sheet that has already been searched.
+     *
+     * @param sheetInfo The sheet info containing the workbook and sheet name.
+     */
+    public void invalidateIndex(SheetInfo sheetInfo) {
+        indexes.remove(sheetInfo.getSheet());
+    }
+
+    /**
+     * Drops the value indexes of all sheets.
+     */
+    public void invalidateAll() {
+        indexes.clear();
+    }
+
     /**
      * Retrieves the cell at the specified coordinates.
      *
@@ -0,0 +1,220 @@
+package org.jspring.xls.service;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jspring.xls.domain.StyleDescriptor;
+import org.jspring.xls.utils.CellUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The XlsxStyleService class interns the cell styles of the workbooks by their {@link StyleDescriptor}.
+ * Each distinct descriptor creates one style record per workbook, whatever the number of cells using it,
+ * which keeps the styles part small and far from the limit of 64000 styles of a workbook.
+ * <p>
+ * The registry only keeps the indexes of the interned styles and fonts, never the POI objects, which all refer
+ * to their workbook: a workbook is dropped from the registry once it is no longer used, or explicitly with
+ * {@link #release(Workbook)}.
+ */
+public class XlsxStyleService {
+
+    // Keyed weakly so that the styles of a workbook are dropped together with it, the values do not refer to it
+    private final Map<Workbook, WorkbookStyles> workbookStyles = new WeakHashMap<>();
+
+    /**
+     * Returns the style of a workbook matching the descriptor, creating it the first time only.
+     * A streaming workbook shares the styles of the workbook it wraps.
+     *
+     * @param workbook   The workbook owning the style.
+     * @param descriptor The description of the style.
+     * @return The interned {@link CellStyle}.
+     */
+    public CellStyle style(Workbook workbook, StyleDescriptor descriptor) {
+        Workbook owner = ownerOf(workbook);
+        return stylesOf(owner).style(owner, descriptor);
+    }
+
+    /**
+     * Applies the interned style matching the descriptor to a cell.
+     *
+     * @param cell       The cell to style.
+     * @param descriptor The description of the style.
+     */
+    public void applyStyle(Cell cell, StyleDescriptor descriptor) {
+        cell.setCellStyle(style(cell.getSheet().getWorkbook(), descriptor));
+    }
+
+    /**
+     * Writes a value to a cell and applies the interned style matching the descriptor.
+     *
+     * @param cell       The cell to write the value to.
+     * @param value      The value to write to the cell.
+     * @param descriptor The description of the style.
+     */
+    public void writeValue(Cell cell, Object value, StyleDescriptor descriptor) {
+        CellUtils.writeValue(cell, value);
+        applyStyle(cell, descriptor);
+    }
+
+    /**
+     * Returns the number of styles interned for a workbook.
+     *
+     * @param workbook The workbook.
+     * @return The number of interned styles.
+     */
+    public int internedStyles(Workbook workbook) {
+        return stylesOf(ownerOf(workbook)).size();
+    }
+
+    /**
+     * Drops the styles interned for a workbook, e.g. once it has been written. The style records stay in the
+     * workbook, a later call for the same workbook creates new ones.
+     *
+     * @param workbook The workbook.
+     */
+    public synchronized void release(Workbook workbook) {
+        workbookStyles.remove(ownerOf(workbook));
+    }
+
+    /**
+     * Returns the number of workbooks with interned styles still held by the registry.
+     *
+     * @return The number of registered workbooks.
+     */
+    public synchronized int registeredWorkbooks() {
+        return workbookStyles.size();
+    }
+
+    private synchronized WorkbookStyles stylesOf(Workbook owner) {
+        return workbookStyles.computeIfAbsent(owner, key -> new WorkbookStyles());
+    }
+
+    private static Workbook ownerOf(Workbook workbook) {
+        return workbook instanceof SXSSFWorkbook streamingWorkbook
+                ? streamingWorkbook.getXSSFWorkbook()
+                : workbook;
+    }
+
+    /**
+     * The indexes of the styles and fonts interned for one workbook. The workbook is passed to each call rather
+     * than kept, as a value referring to its key would never be dropped from the registry.
+     */
+    private static final class WorkbookStyles {
+
+        private final Map<StyleDescriptor, Integer> styles = new HashMap<>();
+        private final Map<FontKey, Integer> fonts = new HashMap<>();
+
+        synchronized CellStyle style(Workbook workbook, StyleDescriptor descriptor) {
+            Integer index = styles.get(descriptor);
+            if (index != null) {
+                return workbook.getCellStyleAt(index);
+            }
+            CellStyle style = createStyle(workbook, descriptor);
+            styles.put(descriptor, (int) style.getIndex());
+            return style;
+        }
+
+        synchronized int size() {
+            return styles.size();
+        }
+
+        private CellStyle createStyle(Workbook workbook, StyleDescriptor descriptor) {
+            CellStyle style = workbook.createCellStyle();
+            CellStyle base = descriptor.baseStyleIndex() != null
+                    ? workbook.getCellStyleAt(descriptor.baseStyleIndex())
+                    : null;
+            if (base != null) {
+                style.cloneStyleFrom(base);
+            }
+
+            if (descriptor.dataFormat() != null) {
+                style.setDataFormat(workbook.createDataFormat().getFormat(descriptor.dataFormat()));
+            }
+            if (descriptor.hasFont()) {
+                style.setFont(font(workbook, descriptor, workbook.getFontAt(style.getFontIndex())));
+            }
+            if (descriptor.fillColor() != null) {
+                style.setFillForegroundColor(descriptor.fillColor());
+            }
+            if (descriptor.fillPattern() != null) {
+                style.setFillPattern(descriptor.fillPattern());
+            }
+            if (descriptor.border() != null) {
+                style.setBorderTop(descriptor.border());
+                style.setBorderRight(descriptor.border());
+                style.setBorderBottom(descriptor.border());
+                style.setBorderLeft(descriptor.border());
+            }
+            if (descriptor.horizontalAlignment() != null) {
+                style.setAlignment(descriptor.horizontalAlignment());
+            }
+            if (descriptor.verticalAlignment() != null) {
+                style.setVerticalAlignment(descriptor.verticalAlignment());
+            }
+            if (descriptor.wrapText() != null) {
+                style.setWrapText(descriptor.wrapText());
+            }
+            return style;
+        }
+
+        private Font font(Workbook workbook, StyleDescriptor descriptor, Font base) {
+            // Font heights are stored in twentieths of a point
+            FontKey key = new FontKey(
+                    descriptor.fontName() != null ? descriptor.fontName() : base.getFontName(),
+                    descriptor.fontHeightInPoints() != null
+                            ? (short) (descriptor.fontHeightInPoints() * 20)
+                            : base.getFontHeight(),
+                    descriptor.bold() != null ? descriptor.bold() : base.getBold(),
+                    descriptor.italic() != null ? descriptor.italic() : base.getItalic(),
+                    descriptor.fontColor() != null ? descriptor.fontColor() : base.getColor(),
+                    base.getStrikeout(),
+                    base.getTypeOffset(),
+                    base.getUnderline()
+            );
+            Integer index = fonts.get(key);
+            if (index != null) {
+                return workbook.getFontAt(index);
+            }
+            Font font = findOrCreateFont(workbook, key);
+            fonts.put(key, font.getIndex());
+            return font;
+        }
+
+        private static Font findOrCreateFont(Workbook workbook, FontKey key) {
+            // Reuse a matching font of the template before adding one
+            Font font = workbook.findFont(key.bold(), key.color(), key.height(), key.name(), key.italic(),
+                    key.strikeout(), key.typeOffset(), key.underline());
+            if (font != null) {
+                return font;
+            }
+            font = workbook.createFont();
+            font.setFontName(key.name());
+            font.setFontHeight(key.height());
+            font.setBold(key.bold());
+            font.setItalic(key.italic());
+            font.setColor(key.color());
+            font.setStrikeout(key.strikeout());
+            font.setTypeOffset(key.typeOffset());
+            font.setUnderline(key.underline());
+            return font;
+        }
+    }
+
+    private record FontKey(
+            String name,
+            short height,
+            boolean bold,
+            boolean italic,
+            short color,
+            boolean strikeout,
+            short typeOffset,
+            byte underline
+    ) {
+    }
+
+}
@@ -1,15 +1,22 @@
 package org.jspring.xls.service;
 
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.jspring.xls.annotation.XlsColumn;
 import org.jspring.xls.domain.CellSearch;
-import org.jspring.xls.utils.CellUtils;
-
-import java.util.ArrayList;
+import org.jspring.xls.domain.ColumnData;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.mapping.BeanMapping;
+import org.jspring.xls.writer.BeanRowWriter;
+import org.jspring.xls.writer.CellWriter;
+import org.jspring.xls.writer.CellWriters;
+
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The XlsxTableService class provides methods for populating an Excel worksheet
@@ -17,6 +24,19 @@ import java.util.stream.IntStream;
  */
 public class XlsxTableService {
 
+    private final XlsxStyleService styleService;
+
+    public XlsxTableService() {
+        this(new XlsxStyleService());
+    }
+
+    /**
+     * @param styleService The registry of the date styles of the written dates.
+     */
+    public XlsxTableService(XlsxStyleService styleService) {
+        this.styleService = styleService;
+    }
+
     /**
      * Updates the provided worksheet with the given data.
      *
@@ -26,93 +46,175 @@ public class XlsxTableService {
      * @return The workbook containing the updated worksheet with the populated data.
      */
     public <T,R> Workbook populateWorksheetWithData(CellSearch<T> cellSearch, int cellsPerRow, List<R> data) {
-        processWorksheets(cellsPerRow, data, cellSearch);
+        return populateWorksheetWithData(cellSearch, cellsPerRow, data.iterator());
+    }
+
+    /**
+     * Updates the provided worksheet with the values of an iterator, laid out from left to right in rows of
+     * {@code cellsPerRow} cells. Each value is written as soon as it is read, at a position computed from its
+     * index, so the data never needs to be held in memory and may come from a source of unknown size.
+     *
+     * @param cellSearch  The object giving the sheet and the top left cell of the table.
+     * @param cellsPerRow The number of cells per row in the worksheet.
+     * @param data        The values to populate the worksheet with.
+     * @return The workbook containing the updated worksheet with the populated data.
+     */
+    public <T,R> Workbook populateWorksheetWithData(CellSearch<T> cellSearch, int cellsPerRow, Iterator<R> data) {
+        data.forEachRemaining(new TableCursor(cellSearch, cellsPerRow));
         return cellSearch.sheetInfo().workbook();
     }
 
-    private <T,R> void processWorksheets(int cellsPerRow, List<R> data, CellSearch<T> cellSearch) {
-        List<Row> rows = new ArrayList<>();
-        List<CellData> list = IntStream.range(0, data.size())
-                .mapToObj(cellNumber -> createCellData(cellNumber, cellsPerRow, data, cellSearch))
-                .toList();
+    /**
+     * Updates the provided worksheet with the values of a spliterator, in encounter order,
+     * see {@link #populateWorksheetWithData(CellSearch, int, Iterator)}.
+     *
+     * @param cellSearch  The object giving the sheet and the top left cell of the table.
+     * @param cellsPerRow The number of cells per row in the worksheet.
+     * @param data        The values to populate the worksheet with.
+     * @return The workbook containing the updated worksheet with the populated data.
+     */
+    public <T,R> Workbook populateWorksheetWithData(CellSearch<T> cellSearch, int cellsPerRow, Spliterator<R> data) {
+        data.forEachRemaining(new TableCursor(cellSearch, cellsPerRow));
+        return cellSearch.sheetInfo().workbook();
+    }
 
-        list.forEach(cellData -> processCellData(cellSearch, rows, cellData));
+    /**
+     * Updates the provided worksheet with the values of a stream, in encounter order,
+     * see {@link #populateWorksheetWithData(CellSearch, int, Iterator)}. The stream is consumed
+     * but not closed.
+     *
+     * @param cellSearch  The object giving the sheet and the top left cell of the table.
+     * @param cellsPerRow The number of cells per row in the worksheet.
+     * @param data        The values to populate the worksheet with.
+     * @return The workbook containing the updated worksheet with the populated data.
+     */
+    public <T,R> Workbook populateWorksheetWithData(CellSearch<T> cellSearch, int cellsPerRow, Stream<R> data) {
+        return populateWorksheetWithData(cellSearch, cellsPerRow, data.spliterator());
     }
 
-    private <T,R> CellData createCellData(int index, int cellsPerRow, List<R> data, CellSearch<T> cellSearch) {
+    /**
+     * Updates the provided worksheet with the values of a primitive column, laid out from left to right
+     * in rows of {@code cellsPerRow} cells. Values are written straight from the column array, without boxing.
+     *
+     * @param cellSearch  The object giving the sheet and the top left cell of the table.
+     * @param cellsPerRow The number of cells per row in the worksheet.
+     * @param data        The column containing the data to populate the worksheet with.
+     * @return The workbook containing the updated worksheet with the populated data.
+     * @throws IllegalArgumentException if {@code cellsPerRow} is not positive.
+     */
+    public <T> Workbook populateWorksheetWithData(CellSearch<T> cellSearch, int cellsPerRow, ColumnData data) {
+        requirePositive(cellsPerRow);
+        Sheet sheet = cellSearch.sheetInfo().getSheet();
         int startRow = cellSearch.cellCoordinates().rowNumber();
         int startColumn = cellSearch.cellCoordinates().columnNumber();
-
-        // Calculate the row and column taking into account the starting row and column
-        int rowIndex = index / cellsPerRow + startRow;
-        int columnIndex = index % cellsPerRow + startColumn;
-
-        // Make sure column index wraps to zero when it hits `cellsPerRow`
-        if (columnIndex >= cellsPerRow + startColumn) {
-            columnIndex -= cellsPerRow;
-            columnIndex += startColumn;
-            rowIndex++;
+        StringStrategy strategy = data.resolve(StringStrategy.SHARED);
+
+        Row row = null;
+        for (int index = 0; index < data.size(); index++) {
+            int columnOffset = index % cellsPerRow;
+            if (columnOffset == 0) {
+                row = fetchOrCreateRow(sheet, startRow + index / cellsPerRow);
+            }
+            data.write(row.createCell(startColumn + columnOffset), index, strategy);
         }
-
-        CellData<R> cellData = new CellData<>(
-                columnIndex,
-                rowIndex,
-                data.get(index)
-        );
-        return cellData;
+        return cellSearch.sheetInfo().workbook();
     }
 
-    /*private <T> CellData createCellData(int i, int cellsPerRow, List<Integer> data, CellSearch<T> cellSearch) {
+    /**
+     * Updates the provided worksheet with a list of records or beans, one object per row and one
+     * {@link XlsColumn} property per column, below an optional header row.
+     * The accessors and the cell writer of each column are resolved once, see {@link BeanMapping}.
+     *
+     * @param cellSearch The object giving the sheet and the top left cell of the table.
+     * @param type       The class of the objects, annotated with {@link XlsColumn}.
+     * @param beans      The objects to populate the worksheet with.
+     * @param withHeader Whether a row of column headers is written above the objects.
+     * @return The workbook containing the updated worksheet with the populated data.
+     */
+    public <T, R> Workbook populateWorksheetWithBeans(CellSearch<T> cellSearch, Class<R> type, List<? extends R> beans,
+                                                      boolean withHeader) {
+        Sheet sheet = cellSearch.sheetInfo().getSheet();
         int startRow = cellSearch.cellCoordinates().rowNumber();
         int startColumn = cellSearch.cellCoordinates().columnNumber();
-        int adjustedIndex = i + startColumn + (startRow * cellsPerRow);
-        CellData cellData = new CellData(
-                adjustedIndex % cellsPerRow,
-                adjustedIndex / cellsPerRow,
-                data.get(i)
-        );
-        return cellData;
-    }*/
-
-    private <T,R> void processCellData(CellSearch<T> cellSearch, List<Row> rows, CellData<R> cellData) {
-        Row row = fetchOrCreateRow(cellSearch, rows, cellData);
-        createAndFillCell(row, cellData.columnNumber(), cellData.value());
-    }
 
-    private <T,R> Row fetchOrCreateRow(CellSearch<T> cellSearch, List<Row> rows, CellData<R> cellData) {
-        //return cellData.columnNumber() == 0 ? addRowToSheet(cellSearch, rows, cellData.rowNumber()) : rows.get(cellData.rowNumber());
-        if (cellData.rowNumber() >= rows.size()) {
-            return addRowToSheet(cellSearch, rows, cellData.rowNumber());
+        BeanRowWriter<R> rowWriter = new BeanRowWriter<>(type, new CellWriters(StringStrategy.SHARED, styleService));
+
+        int rowIndex = startRow;
+        if (withHeader) {
+            rowWriter.writeHeader(fetchOrCreateRow(sheet, rowIndex++), startColumn);
         }
+        for (R bean : beans) {
+            rowWriter.write(fetchOrCreateRow(sheet, rowIndex++), startColumn, bean);
+        }
+        return cellSearch.sheetInfo().workbook();
+    }
+
+    /**
+     * Updates the provided worksheet with a list of records or beans below a row of column headers,
+     * see {@link #populateWorksheetWithBeans(CellSearch, Class, List, boolean)}.
+     *
+     * @param cellSearch The object giving the sheet and the top left cell of the table.
+     * @param type       The class of the objects, annotated with {@link XlsColumn}.
+     * @param beans      The objects to populate the worksheet with.
+     * @return The workbook containing the updated worksheet with the populated data.
+     */
+    public <T, R> Workbook populateWorksheetWithBeans(CellSearch<T> cellSearch, Class<R> type, List<? extends R> beans) {
+        return populateWorksheetWithBeans(cellSearch, type, beans, true);
+    }
 
-        return rows.get(cellData.rowNumber());
+    private static Row fetchOrCreateRow(Sheet sheet, int rowIndex) {
+        Row row = sheet.getRow(rowIndex);
+        return row != null ? row : sheet.createRow(rowIndex);
     }
 
-   /* private <T> Row addRowToSheet(CellSearch<T> cellSearch, List<Row> rows, int rowNumber) {
-        Row row = cellSearch.sheetInfo().getSheet().createRow(rowNumber);
-        rows.add(row);
-        return row;
-    }*/
-
-    private <T> Row addRowToSheet(CellSearch<T> cellSearch, List<Row> rows, int rowNumber) {
-        if (cellSearch.sheetInfo().getSheet().getRow(rowNumber) == null) {
-            Row row = cellSearch.sheetInfo().getSheet().createRow(rowNumber);
-            rows.add(row);
-            return row;
-        } else {
-            XSSFRow row = cellSearch.sheetInfo().getSheet().getRow(rowNumber);
-            rows.add(row);
-            return row;
+    private static void requirePositive(int cellsPerRow) {
+        if (cellsPerRow <= 0) {
+            throw new IllegalArgumentException("cellsPerRow must be positive, got " + cellsPerRow);
         }
     }
 
-    private <R> void createAndFillCell(Row row, int columnNumber, R value) {
-        Cell cell = row.createCell(columnNumber);
-        CellUtils.writeValue(cell, value);
-        //cell.setCellValue(value);
-    }
+    /**
+     * Writes the values of a table one by one, moving to the next row every {@code cellsPerRow} values.
+     * Only the current row and the writer of the values are kept between two values.
+     */
+    private final class TableCursor implements Consumer<Object> {
+
+        private final Sheet sheet;
+        private final int startColumn;
+        private final int cellsPerRow;
+        private final CellWriters cellWriters = new CellWriters(StringStrategy.SHARED, styleService);
+        private CellWriter writer = cellWriters.generic();
+        private boolean typed;
+        private int rowIndex;
+        private int columnOffset;
+        private Row row;
+
+        private TableCursor(CellSearch<?> cellSearch, int cellsPerRow) {
+            requirePositive(cellsPerRow);
+            this.sheet = cellSearch.sheetInfo().getSheet();
+            this.rowIndex = cellSearch.cellCoordinates().rowNumber();
+            this.startColumn = cellSearch.cellCoordinates().columnNumber();
+            this.cellsPerRow = cellsPerRow;
+        }
 
-    private record CellData<R>(int columnNumber, int rowNumber, R value) {
+        @Override
+        public void accept(Object value) {
+            if (row == null) {
+                row = fetchOrCreateRow(sheet, rowIndex);
+            }
+            // The writer is specialized once, for the type of the first value
+            if (!typed && value != null) {
+                writer = cellWriters.forType(value.getClass());
+                typed = true;
+            }
+            writer.write(row.createCell(startColumn + columnOffset), value);
+
+            if (++columnOffset == cellsPerRow) {
+                columnOffset = 0;
+                rowIndex++;
+                row = null;
+            }
+        }
     }
 
-}
\ No newline at end of file
+}
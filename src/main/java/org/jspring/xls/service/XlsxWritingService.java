@@ -1,10 +1,24 @@
 package org.jspring.xls.service;
 
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.utils.BufferPool;
+import org.jspring.xls.utils.PooledBufferedOutputStream;
+import org.jspring.xls.writer.CompressingSXSSFWorkbook;
+import org.jspring.xls.writer.CompressingZipOutputStream;
+import org.jspring.xls.writer.DeflaterPool;
+import org.jspring.xls.writer.ParallelSXSSFWorkbook;
+import org.jspring.xls.writer.SheetRenderPool;
+import org.jspring.xls.writer.ZipCompression;
 
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -12,6 +26,189 @@ import java.io.IOException;
  */
 public class XlsxWritingService {
 
+    private final WriteMode defaultWriteMode;
+    private final int rowAccessWindowSize;
+    private final boolean compressTempFiles;
+    private final BufferPool bufferPool;
+    private final int writeParallelism;
+    private final ZipCompression compression;
+    private final DeflaterPool deflaterPool;
+    private final SheetRenderPool renderPool;
+
+    public XlsxWritingService() {
+        this(WriteMode.IN_MEMORY, SXSSFWorkbook.DEFAULT_WINDOW_SIZE, false);
+    }
+
+    public XlsxWritingService(WriteMode defaultWriteMode, int rowAccessWindowSize, boolean compressTempFiles) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, new BufferPool());
+    }
+
+    public XlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, 1);
+    }
+
+    /**
+     * @param writeParallelism The number of sheets of a streaming workbook rendered and compressed at the same time
+     *                         when it is written, 1 to write them one after the other.
+     */
+    public XlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism,
+                ZipCompression.DEFAULT);
+    }
+
+    /**
+     * @param writeParallelism The number of sheets of a streaming workbook rendered and compressed at the same time
+     *                         when it is written, 1 to write them one after the other.
+     * @param compression      The compression of the parts of the written packages when an operation does not
+     *                         choose one, {@link ZipCompression#DEFAULT} to let POI compress them.
+     */
+    public XlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism, compression,
+                DeflaterPool.common());
+    }
+
+    /**
+     * @param writeParallelism The number of sheets of a streaming workbook rendered and compressed at the same time
+     *                         when it is written, 1 to write them one after the other.
+     * @param compression      The compression of the parts of the written packages when an operation does not
+     *                         choose one, {@link ZipCompression#DEFAULT} to let POI compress them.
+     * @param deflaterPool     The threads deflating the blocks of the parts compressed in parallel, shared by
+     *                         all the writes.
+     */
+    public XlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression,
+            DeflaterPool deflaterPool
+    ) {
+        this(defaultWriteMode, rowAccessWindowSize, compressTempFiles, bufferPool, writeParallelism, compression,
+                deflaterPool, SheetRenderPool.common());
+    }
+
+    /**
+     * @param writeParallelism The number of sheets of a streaming workbook rendered and compressed at the same time
+     *                         when it is written, 1 to write them one after the other.
+     * @param compression      The compression of the parts of the written packages when an operation does not
+     *                         choose one, {@link ZipCompression#DEFAULT} to let POI compress them.
+     * @param deflaterPool     The threads deflating the blocks of the parts compressed in parallel, shared by
+     *                         all the writes.
+     * @param renderPool       The threads rendering the sheets of the streaming workbooks written in parallel,
+     *                         shared by all the writes.
+     */
+    public XlsxWritingService(
+            WriteMode defaultWriteMode,
+            int rowAccessWindowSize,
+            boolean compressTempFiles,
+            BufferPool bufferPool,
+            int writeParallelism,
+            ZipCompression compression,
+            DeflaterPool deflaterPool,
+            SheetRenderPool renderPool
+    ) {
+        this.defaultWriteMode = defaultWriteMode;
+        this.rowAccessWindowSize = rowAccessWindowSize;
+        this.compressTempFiles = compressTempFiles;
+        this.bufferPool = bufferPool;
+        this.writeParallelism = writeParallelism;
+        this.compression = compression;
+        this.deflaterPool = deflaterPool;
+        this.renderPool = renderPool;
+    }
+
+    /**
+     * Returns the write mode used when an operation does not choose one.
+     *
+     * @return the default {@link WriteMode}
+     */
+    public WriteMode defaultWriteMode() {
+        return defaultWriteMode;
+    }
+
+    /**
+     * Returns the compression used when an operation does not choose one.
+     *
+     * @return the default {@link ZipCompression}
+     */
+    public ZipCompression compression() {
+        return compression;
+    }
+
+    /**
+     * Wraps a {@link XSSFWorkbook} in a {@link SXSSFWorkbook} that keeps at most the configured
+     * number of rows in memory. The rows already present in the template are preserved, but new rows
+     * can only be appended below the last row of each template sheet.
+     * The returned workbook must be written with {@link #writeFile(SXSSFWorkbook, String)} or
+     * {@link #writeAsByteArray(SXSSFWorkbook)}, or disposed of explicitly, to remove its temporary files.
+     *
+     * @param workbook the {@link XSSFWorkbook} used as template
+     * @return a streaming workbook backed by the given template
+     */
+    public SXSSFWorkbook toStreamingWorkbook(XSSFWorkbook workbook) {
+        return toStreamingWorkbook(workbook, false);
+    }
+
+    /**
+     * Wraps a {@link XSSFWorkbook} in a {@link SXSSFWorkbook} as {@link #toStreamingWorkbook(XSSFWorkbook)},
+     * choosing how the texts of the streamed cells are stored.
+     *
+     * @param workbook         the {@link XSSFWorkbook} used as template
+     * @param useSharedStrings whether texts go to the shared strings table, which stays in memory,
+     *                         rather than inline in the cells
+     * @return a streaming workbook backed by the given template, writing its sheets in parallel when the
+     * write parallelism is greater than 1, see {@link ParallelSXSSFWorkbook}
+     */
+    public SXSSFWorkbook toStreamingWorkbook(XSSFWorkbook workbook, boolean useSharedStrings) {
+        return toStreamingWorkbook(workbook, useSharedStrings, compression);
+    }
+
+    /**
+     * Wraps a {@link XSSFWorkbook} in a {@link SXSSFWorkbook} as {@link #toStreamingWorkbook(XSSFWorkbook, boolean)},
+     * choosing how the parts of its package are compressed when it is written.
+     *
+     * @param workbook         the {@link XSSFWorkbook} used as template
+     * @param useSharedStrings whether texts go to the shared strings table, which stays in memory,
+     *                         rather than inline in the cells
+     * @param compression      the compression of the parts of the package
+     * @return a streaming workbook backed by the given template, see {@link ParallelSXSSFWorkbook} and
+     * {@link CompressingSXSSFWorkbook}
+     */
+    public SXSSFWorkbook toStreamingWorkbook(XSSFWorkbook workbook, boolean useSharedStrings,
+                                             ZipCompression compression) {
+        if (writeParallelism > 1) {
+            return new ParallelSXSSFWorkbook(
+                    workbook, rowAccessWindowSize, compressTempFiles, useSharedStrings, writeParallelism, compression,
+                    deflaterPool, renderPool
+            );
+        }
+        if (!compression.isDefault()) {
+            return new CompressingSXSSFWorkbook(
+                    workbook, rowAccessWindowSize, compressTempFiles, useSharedStrings, compression, deflaterPool
+            );
+        }
+        return new SXSSFWorkbook(workbook, rowAccessWindowSize, compressTempFiles, useSharedStrings);
+    }
+
     /**
      * Writes the contents of a {@link XSSFWorkbook} to a file.
      *
@@ -20,23 +217,128 @@ public class XlsxWritingService {
      * @throws RuntimeException if an {@link IOException} occurs during the writing process
      */
     public void writeFile(XSSFWorkbook workbook, String fileName) {
-        try (FileOutputStream out = new FileOutputStream(fileName)) {
-            workbook.write(out);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        writeFile(workbook, fileName, compression);
+    }
+
+    /**
+     * Writes the contents of a {@link XSSFWorkbook} to a file, compressing the parts of its package as chosen.
+     *
+     * @param workbook    the {@link XSSFWorkbook} object containing the data to write
+     * @param fileName    the name of the file to write the data to
+     * @param compression the compression of the parts of the package
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public void writeFile(XSSFWorkbook workbook, String fileName, ZipCompression compression) {
+        write(workbook, fileName, compression);
+    }
+
+    /**
+     * Writes the contents of a {@link SXSSFWorkbook} to a file and disposes of its temporary files,
+     * whether the write succeeds or not.
+     *
+     * @param workbook the {@link SXSSFWorkbook} object containing the data to write
+     * @param fileName the name of the file to write the data to
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public void writeFile(SXSSFWorkbook workbook, String fileName) {
+        try {
+            write(workbook, fileName, compression);
+        } finally {
+            workbook.dispose();
         }
     }
 
     /**
      * Writes the contents of a {@link XSSFWorkbook} to a byte array.
+     * The whole file is held in memory twice while copying, prefer {@link #writeTo(Workbook, OutputStream)}
+     * for large workbooks.
      *
      * @param workbook the {@link XSSFWorkbook} object containing the data to write
      * @return a byte array containing the workbook data
      * @throws RuntimeException if an {@link IOException} occurs during the writing process
      */
     public byte[] writeAsByteArray(XSSFWorkbook workbook) {
+        return toByteArray(workbook);
+    }
+
+    /**
+     * Writes the contents of a {@link SXSSFWorkbook} to a byte array and disposes of its temporary files,
+     * whether the write succeeds or not.
+     *
+     * @param workbook the {@link SXSSFWorkbook} object containing the data to write
+     * @return a byte array containing the workbook data
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public byte[] writeAsByteArray(SXSSFWorkbook workbook) {
+        try {
+            return toByteArray(workbook);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Writes the contents of a {@link Workbook} directly to an output stream, e.g. a servlet response,
+     * through a pooled buffer and without building the whole file in memory.
+     * The stream is flushed but not closed. A {@link SXSSFWorkbook} is disposed of once written.
+     *
+     * @param workbook the {@link Workbook} object containing the data to write
+     * @param out      the stream to write the data to
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public void writeTo(Workbook workbook, OutputStream out) {
+        writeTo(workbook, out, compression);
+    }
+
+    /**
+     * Writes the contents of a {@link Workbook} directly to an output stream as
+     * {@link #writeTo(Workbook, OutputStream)}, compressing the parts of a {@link XSSFWorkbook} as chosen.
+     * A {@link SXSSFWorkbook} is compressed as chosen when it was created, see
+     * {@link #toStreamingWorkbook(XSSFWorkbook, boolean, ZipCompression)}.
+     *
+     * @param workbook    the {@link Workbook} object containing the data to write
+     * @param out         the stream to write the data to
+     * @param compression the compression of the parts of a {@link XSSFWorkbook}
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public void writeTo(Workbook workbook, OutputStream out, ZipCompression compression) {
+        try (PooledBufferedOutputStream buffered = new PooledBufferedOutputStream(out, bufferPool)) {
+            write(workbook, buffered, compression);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (workbook instanceof SXSSFWorkbook streamingWorkbook) {
+                streamingWorkbook.dispose();
+            }
+        }
+    }
+
+    /**
+     * Writes the contents of a {@link Workbook} directly to a channel, e.g. a {@link java.nio.channels.FileChannel},
+     * through a pooled buffer and without building the whole file in memory.
+     * The channel is not closed. A {@link SXSSFWorkbook} is disposed of once written.
+     *
+     * @param workbook the {@link Workbook} object containing the data to write
+     * @param channel  the channel to write the data to
+     * @throws RuntimeException if an {@link IOException} occurs during the writing process
+     */
+    public void writeTo(Workbook workbook, WritableByteChannel channel) {
+        // The adapter wraps each buffered chunk in a ByteBuffer without copying it
+        writeTo(workbook, Channels.newOutputStream(channel));
+    }
+
+    private void write(Workbook workbook, String fileName, ZipCompression compression) {
+        try (FileOutputStream out = new FileOutputStream(fileName);
+             PooledBufferedOutputStream buffered = new PooledBufferedOutputStream(out, bufferPool)) {
+            write(workbook, buffered, compression);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] toByteArray(Workbook workbook) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            workbook.write(baos);
+            write(workbook, baos, compression);
             return baos.toByteArray();
 
         } catch (IOException e) {
@@ -44,5 +346,15 @@ public class XlsxWritingService {
         }
     }
 
+    private void write(Workbook workbook, OutputStream out, ZipCompression compression) throws IOException {
+        if (workbook instanceof XSSFWorkbook && !compression.isDefault()) {
+            // POI writes the package to the given zip stream instead of creating its own
+            try (CompressingZipOutputStream zos = new CompressingZipOutputStream(out, compression, deflaterPool)) {
+                workbook.write(zos);
+            }
+            return;
+        }
+        workbook.write(out);
+    }
 
 }
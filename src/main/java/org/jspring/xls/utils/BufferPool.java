@@ -0,0 +1,61 @@
+package org.jspring.xls.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of reusable byte buffers of the same size.
+ * When the pool is empty a new buffer is allocated, and buffers released to a full pool
+ * are left to the garbage collector, so the pool never blocks.
+ */
+public class BufferPool {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 16;
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    public BufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED_BUFFERS);
+    }
+
+    public BufferPool(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize < 1 || maxPooledBuffers < 1) {
+            throw new IllegalArgumentException("Buffer size and pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+    }
+
+    /**
+     * Takes a buffer from the pool, or allocates a new one if none is available.
+     *
+     * @return A buffer of {@link #bufferSize()} bytes, with undefined content.
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+     *
+     * @param buffer A buffer previously obtained from {@link #acquire()}.
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Returns the size of the buffers handed out by this pool.
+     *
+     * @return The buffer size in bytes.
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+}
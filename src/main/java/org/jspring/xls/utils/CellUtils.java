@@ -1,6 +1,11 @@
 package org.jspring.xls.utils;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.jspring.xls.enums.StringStrategy;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 
 public class CellUtils {
 
@@ -24,4 +29,40 @@ public class CellUtils {
 
     }
 
+    /**
+     * Writes a value to a cell in an XLSX workbook, storing a text as the given strategy says.
+     *
+     * @param cell     The cell to write the value to.
+     * @param value    The value to write to the cell.
+     * @param strategy The resolved strategy, {@link StringStrategy#SHARED} or {@link StringStrategy#INLINE}.
+     * @throws IllegalStateException If the value type is unexpected.
+     */
+    public static void writeValue(Cell cell, Object value, StringStrategy strategy) {
+        if (strategy == StringStrategy.INLINE && value instanceof String stringVal) {
+            writeInlineString(cell, stringVal);
+        } else {
+            writeValue(cell, value);
+        }
+    }
+
+    /**
+     * Writes a text inline in a cell, without adding it to the shared strings table.
+     * Only cells of an in-memory workbook can be written inline one by one: the cells of a streaming
+     * workbook store their texts as decided for the whole workbook when it is created.
+     *
+     * @param cell  The cell to write the text to.
+     * @param value The text to write to the cell.
+     */
+    public static void writeInlineString(Cell cell, String value) {
+        if (!(cell instanceof XSSFCell xssfCell)) {
+            cell.setCellValue(value);
+            return;
+        }
+        // Drops the previous value and type, keeping the reference and the style of the cell
+        xssfCell.setBlank();
+        CTCell ctCell = xssfCell.getCTCell();
+        ctCell.setT(STCellType.INLINE_STR);
+        ctCell.setIs(new XSSFRichTextString(value).getCTRst());
+    }
+
 }
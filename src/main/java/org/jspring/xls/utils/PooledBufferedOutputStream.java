@@ -0,0 +1,82 @@
+package org.jspring.xls.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A buffered output stream that borrows its buffer from a {@link BufferPool}.
+ * Closing the stream flushes the pending bytes and returns the buffer to the pool,
+ * but leaves the target stream open so that its owner (e.g. a servlet container) can close it.
+ */
+public class PooledBufferedOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final BufferPool bufferPool;
+    private byte[] buffer;
+    private int count;
+
+    public PooledBufferedOutputStream(OutputStream out, BufferPool bufferPool) {
+        this.out = out;
+        this.bufferPool = bufferPool;
+        this.buffer = bufferPool.acquire();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (length >= buffer.length) {
+            // Large chunks go straight to the target, copying them would not save any write
+            flushBuffer();
+            out.write(bytes, offset, length);
+            return;
+        }
+        if (length > buffer.length - count) {
+            flushBuffer();
+        }
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+}
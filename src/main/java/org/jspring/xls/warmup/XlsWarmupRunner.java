@@ -0,0 +1,186 @@
+package org.jspring.xls.warmup;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.RowView;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.CellFilter;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs synthetic read, search, write and serialize cycles on the configured templates at startup, so that the
+ * POI and XMLBeans classes are loaded and initialized, and the hot paths compiled, before the first request.
+ * <p>
+ * The runner runs synchronously, before the {@code ApplicationReadyEvent}, so the readiness state of the
+ * application only changes to {@code ACCEPTING_TRAFFIC} once the warm-up is over. A template that cannot be
+ * read fails the startup, as it would fail the requests using it.
+ */
+public class XlsWarmupRunner implements ApplicationRunner, Ordered {
+
+    public static final int DEFAULT_ITERATIONS = 5;
+
+    private static final String WARMUP_SHEET_NAME = "xlsx-warmup";
+    private static final int WARMUP_ROWS = 500;
+    private static final int WARMUP_COLUMNS = 4;
+
+    private final List<String> templatePaths;
+    private final int iterations;
+    private final XlsxReadingService readingService;
+    private final XlsxSearchingService searchingService;
+    private final XlsxCellsWritingService cellsWritingService;
+    private final XlsxWritingService writingService;
+    private volatile boolean completed;
+
+    /**
+     * @param templatePaths The templates loaded and written at startup.
+     * @param iterations    The number of cycles run on each template.
+     */
+    public XlsWarmupRunner(
+            List<String> templatePaths,
+            int iterations,
+            XlsxReadingService readingService,
+            XlsxSearchingService searchingService,
+            XlsxCellsWritingService cellsWritingService,
+            XlsxWritingService writingService
+    ) {
+        this.templatePaths = List.copyOf(templatePaths);
+        this.iterations = iterations;
+        this.readingService = readingService;
+        this.searchingService = searchingService;
+        this.cellsWritingService = cellsWritingService;
+        this.writingService = writingService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Runs the warm-up cycles on every template.
+     *
+     * @throws RuntimeException if a template cannot be read or written.
+     */
+    public void warmUp() {
+        TableData<Object> tableData = syntheticTable();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (String templatePath : templatePaths) {
+                cycle(templatePath, tableData);
+            }
+        }
+        completed = true;
+    }
+
+    /**
+     * Returns whether the warm-up has run to completion.
+     *
+     * @return true once every cycle has run.
+     */
+    public boolean completed() {
+        return completed;
+    }
+
+    @Override
+    public int getOrder() {
+        // Before the runners of the application, which may already export workbooks
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void cycle(String templatePath, TableData<Object> tableData) {
+        XSSFWorkbook workbook = readingService.readFromTemplate(templatePath);
+        SheetInfo sheetInfo = new SheetInfo(workbook, workbook.getSheetName(0));
+        // A value absent from the template, so that the whole sheet is searched
+        searchingService.searchCellBySheetAndCoordinates(
+                sheetInfo, new CellCoordinates<>(-1, -1, WARMUP_SHEET_NAME, CellFilter.NO_FILTER.predicate())
+        );
+        searchingService.invalidateIndex(sheetInfo);
+
+        Sheet sheet = workbook.createSheet(WARMUP_SHEET_NAME);
+        cellsWritingService.writeTopToBottom(sheet, new StartPoint(0, 0), tableData);
+        byte[] written = writingService.writeAsByteArray(workbook);
+        // The warm-up workbooks are dropped as soon as written, their date styles with them
+        cellsWritingService.releaseStyles(workbook);
+
+        // The written package is parsed again, in memory and as a stream of rows
+        try (XSSFWorkbook read = readingService.readFromByteArray(written)) {
+            SXSSFWorkbook streamingWorkbook = writingService.toStreamingWorkbook(read);
+            cellsWritingService.writeTopToBottom(
+                    streamingWorkbook.getSheet(WARMUP_SHEET_NAME), new StartPoint(WARMUP_ROWS, 0), tableData
+            );
+            try {
+                writingService.writeTo(streamingWorkbook, OutputStream.nullOutputStream());
+            } finally {
+                cellsWritingService.releaseStyles(streamingWorkbook);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        streamRows(written);
+    }
+
+    private void streamRows(byte[] written) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(WARMUP_SHEET_NAME, ".xlsx");
+            Files.write(file, written);
+            try (Stream<RowView> rows = readingService.streamRows(file.toString(), WARMUP_SHEET_NAME)) {
+                rows.forEach(row -> row.cell(0));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * A table of the value types written by the exports: texts, numbers, dates and booleans.
+     */
+    private static TableData<Object> syntheticTable() {
+        List<Object> values = new ArrayList<>(WARMUP_ROWS * WARMUP_COLUMNS);
+        for (int row = 0; row < WARMUP_ROWS; row++) {
+            values.add("text " + row);
+        }
+        for (int row = 0; row < WARMUP_ROWS; row++) {
+            values.add(row * 1.5);
+        }
+        for (int row = 0; row < WARMUP_ROWS; row++) {
+            values.add(LocalDate.of(2024, 1, 1).plusDays(row));
+        }
+        for (int row = 0; row < WARMUP_ROWS; row++) {
+            values.add(row % 2 == 0);
+        }
+        return new TableData<>(values, WARMUP_ROWS, WARMUP_COLUMNS);
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.jspring.xls.web;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jspring.xls.builder.WorkbookOperation;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * A write-only message converter letting controllers return a {@link Workbook} or a {@link WorkbookOperation}
+ * as the body of a response. The workbook, or the workbook resulting from the operation, is written straight to
+ * the response stream through a pooled buffer, without content length, so the response is sent with chunked
+ * transfer encoding. A {@link SXSSFWorkbook} is disposed of once written.
+ * <p>
+ * The content disposition of the download is left to the controller, see {@link XlsxStreamingResponseFactory}
+ * for responses setting it.
+ */
+public class WorkbookHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final XlsxWritingService writingService;
+    private final XlsOperationService operationService;
+
+    public WorkbookHttpMessageConverter(XlsxWritingService writingService, XlsOperationService operationService) {
+        super(XlsxStreamingResponseFactory.XLSX, MediaType.APPLICATION_OCTET_STREAM);
+        this.writingService = writingService;
+        this.operationService = operationService;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Workbook.class.isAssignableFrom(clazz) || WorkbookOperation.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Workbooks cannot be read from a request", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        switch (body) {
+            case Workbook workbook -> writingService.writeTo(workbook, outputMessage.getBody());
+            case WorkbookOperation operation -> operationService.execute(operation, outputMessage.getBody());
+            default -> throw new IllegalStateException("Unexpected body type: " + body.getClass().getName());
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.jspring.xls.web;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.jspring.xls.builder.WorkbookOperation;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The XlsxStreamingResponseFactory class creates Spring MVC response bodies writing a workbook straight to
+ * the response output stream, instead of returning it as a {@code byte[]}.
+ * <p>
+ * The bodies are written after the controller has returned, on an MVC async thread, through a pooled buffer of
+ * {@link XlsxWritingService}. No content length is set, so the response is sent with chunked transfer encoding
+ * and the memory used per download is a buffer, plus the workbook itself unless it is a {@link SXSSFWorkbook}.
+ */
+public class XlsxStreamingResponseFactory {
+
+    public static final MediaType XLSX = MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+    );
+
+    private final XlsxWritingService writingService;
+    private final XlsOperationService operationService;
+
+    public XlsxStreamingResponseFactory(XlsxWritingService writingService, XlsOperationService operationService) {
+        this.writingService = writingService;
+        this.operationService = operationService;
+    }
+
+    /**
+     * Creates a body writing a workbook, disposed of once written if it is a {@link SXSSFWorkbook}.
+     *
+     * @param workbook The workbook to write.
+     * @return The body writing the workbook to the response.
+     */
+    public StreamingResponseBody body(Workbook workbook) {
+        return out -> writingService.writeTo(workbook, out);
+    }
+
+    /**
+     * Creates a body executing an operation and writing the resulting workbook, see
+     * {@link XlsOperationService#execute(WorkbookOperation, OutputStream)}. The operation only runs once the
+     * response is being written, its output path is ignored.
+     *
+     * @param operation The operation to execute.
+     * @return The body writing the workbook of the operation to the response.
+     */
+    public StreamingResponseBody body(WorkbookOperation operation) {
+        return out -> operationService.execute(operation, out);
+    }
+
+    /**
+     * Creates a response downloading a workbook as an xlsx attachment.
+     *
+     * @param workbook The workbook to write.
+     * @param fileName The name of the downloaded file.
+     * @return The response, with the xlsx content type and an attachment content disposition.
+     */
+    public ResponseEntity<StreamingResponseBody> attachment(Workbook workbook, String fileName) {
+        return attachment(body(workbook), fileName);
+    }
+
+    /**
+     * Creates a response downloading the workbook of an operation as an xlsx attachment.
+     *
+     * @param operation The operation to execute.
+     * @param fileName  The name of the downloaded file.
+     * @return The response, with the xlsx content type and an attachment content disposition.
+     */
+    public ResponseEntity<StreamingResponseBody> attachment(WorkbookOperation operation, String fileName) {
+        return attachment(body(operation), fileName);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(StreamingResponseBody body, String fileName) {
+        return ResponseEntity.ok()
+                .contentType(XLSX)
+                .headers(headers -> {
+                    // The file name is also encoded in RFC 5987 form for non ASCII names
+                    headers.setContentDisposition(
+                            ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build()
+                    );
+                    // Exports are generated per request and must not be stored by shared caches
+                    headers.setCacheControl("no-store");
+                })
+                .body(body);
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.jspring.xls.writer;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.jspring.xls.mapping.BeanMapping;
+import org.jspring.xls.mapping.ColumnMapping;
+
+import java.util.List;
+
+/**
+ * Writes records or beans as rows, one {@link org.jspring.xls.annotation.XlsColumn} property per cell.
+ * The columns and their cell writers are resolved once, from the {@link BeanMapping} of the class and the
+ * types of its properties. As the {@link CellWriters} it is built from, a row writer must not be shared
+ * between workbooks.
+ *
+ * @param <T> The type of the written objects.
+ */
+public class BeanRowWriter<T> {
+
+    private final List<ColumnMapping<T>> columns;
+    private final CellWriter[] columnWriters;
+
+    /**
+     * @param type        The class of the written objects.
+     * @param cellWriters The writers of the cells of the rows.
+     */
+    public BeanRowWriter(Class<T> type, CellWriters cellWriters) {
+        this.columns = BeanMapping.of(type).columns();
+        this.columnWriters = new CellWriter[columns.size()];
+        for (int col = 0; col < columnWriters.length; col++) {
+            columnWriters[col] = cellWriters.forType(columns.get(col).type());
+        }
+    }
+
+    /**
+     * Writes the headers of the columns.
+     *
+     * @param row         The header row.
+     * @param startColumn The column of the first property.
+     */
+    public void writeHeader(Row row, int startColumn) {
+        for (int col = 0; col < columns.size(); col++) {
+            row.createCell(startColumn + col).setCellValue(columns.get(col).header());
+        }
+    }
+
+    /**
+     * Writes the properties of an object.
+     *
+     * @param row         The row of the object.
+     * @param startColumn The column of the first property.
+     * @param bean        The object to write.
+     */
+    public void write(Row row, int startColumn, T bean) {
+        for (int col = 0; col < columnWriters.length; col++) {
+            columnWriters[col].write(row.createCell(startColumn + col), columns.get(col).valueOf(bean));
+        }
+    }
+
+}
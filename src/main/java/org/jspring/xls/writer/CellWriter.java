@@ -0,0 +1,20 @@
+package org.jspring.xls.writer;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Writes values of a given kind to cells. Writers are resolved once per column by {@link CellWriters},
+ * so that writing a cell does not go through a switch on the type of its value.
+ */
+@FunctionalInterface
+public interface CellWriter {
+
+    /**
+     * Writes a value to a cell.
+     *
+     * @param cell  The cell to write the value to.
+     * @param value The value to write, null to blank the cell.
+     */
+    void write(Cell cell, Object value);
+
+}
@@ -0,0 +1,249 @@
+package org.jspring.xls.writer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.jspring.xls.domain.StyleDescriptor;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxStyleService;
+import org.jspring.xls.utils.CellUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Resolves the {@link CellWriter} of each column of a table from the type of its values.
+ * A column writer handles its own type directly and hands any other value to a generic writer, so mixed
+ * columns are still written correctly. Dates are written with a date style, created once per workbook
+ * by the {@link XlsxStyleService}, or derived once from the template style already set on the cell.
+ * The writers of a plan keep the styles of the workbook they first wrote to and must not be shared
+ * between workbooks.
+ */
+public class CellWriters {
+
+    public static final String DATE_FORMAT = "yyyy-mm-dd";
+    public static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private final StringStrategy stringStrategy;
+    private final XlsxStyleService styleService;
+    private final CellWriter generic;
+    private final DateWriter<LocalDate> localDateWriter;
+    private final DateWriter<LocalDateTime> localDateTimeWriter;
+    private final DateWriter<Date> dateWriter;
+    private final DateWriter<Calendar> calendarWriter;
+
+    /**
+     * @param stringStrategy The resolved strategy storing the texts, {@link StringStrategy#SHARED} or {@link StringStrategy#INLINE}.
+     * @param styleService   The registry of the date styles.
+     */
+    public CellWriters(StringStrategy stringStrategy, XlsxStyleService styleService) {
+        this.stringStrategy = stringStrategy;
+        this.styleService = styleService;
+        this.localDateWriter = new DateWriter<>(LocalDate.class, DATE_FORMAT, Cell::setCellValue);
+        this.localDateTimeWriter = new DateWriter<>(LocalDateTime.class, DATE_TIME_FORMAT, Cell::setCellValue);
+        this.dateWriter = new DateWriter<>(Date.class, DATE_TIME_FORMAT, Cell::setCellValue);
+        this.calendarWriter = new DateWriter<>(Calendar.class, DATE_TIME_FORMAT, Cell::setCellValue);
+        this.generic = this::writeAny;
+    }
+
+    /**
+     * Resolves the writer of a column from its first non null value.
+     *
+     * @param columnValues The values of the column.
+     * @return The writer of the column, the generic writer for a column without values.
+     */
+    public CellWriter forColumn(List<?> columnValues) {
+        for (Object value : columnValues) {
+            if (value != null) {
+                return forType(value.getClass());
+            }
+        }
+        return generic;
+    }
+
+    /**
+     * Resolves the writer of the values of a type.
+     *
+     * @param type The type of the values.
+     * @return The writer specialized for the type, or the generic writer.
+     */
+    public CellWriter forType(Class<?> type) {
+        if (type == String.class) {
+            return stringStrategy == StringStrategy.INLINE
+                    ? (cell, value) -> {
+                        if (value instanceof String text) {
+                            CellUtils.writeInlineString(cell, text);
+                        } else {
+                            generic.write(cell, value);
+                        }
+                    }
+                    : (cell, value) -> {
+                        if (value instanceof String text) {
+                            cell.setCellValue(text);
+                        } else {
+                            generic.write(cell, value);
+                        }
+                    };
+        }
+        if (type == Double.class) {
+            return (cell, value) -> {
+                if (value instanceof Double number) {
+                    cell.setCellValue(number);
+                } else {
+                    generic.write(cell, value);
+                }
+            };
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (cell, value) -> {
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else {
+                    generic.write(cell, value);
+                }
+            };
+        }
+        if (type == Boolean.class) {
+            return (cell, value) -> {
+                if (value instanceof Boolean bool) {
+                    cell.setCellValue(bool);
+                } else {
+                    generic.write(cell, value);
+                }
+            };
+        }
+        if (type == LocalDate.class) {
+            return localDateWriter;
+        }
+        if (type == LocalDateTime.class) {
+            return localDateTimeWriter;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return dateWriter;
+        }
+        if (Calendar.class.isAssignableFrom(type)) {
+            return calendarWriter;
+        }
+        return generic;
+    }
+
+    /**
+     * Returns the writer accepting values of any supported type.
+     *
+     * @return The generic writer.
+     */
+    public CellWriter generic() {
+        return generic;
+    }
+
+    /**
+     * Creates the date styles of the cells without a style of their own up front, for the workbooks
+     * writing their styles before their rows are generated, such as a
+     * {@link org.apache.poi.xssf.streaming.DeferredSXSSFWorkbook}.
+     *
+     * @param workbook The workbook the cells belong to.
+     */
+    public void createDateStyles(Workbook workbook) {
+        createDateStyles(workbook, List.of(Object.class));
+    }
+
+    /**
+     * Creates up front, as {@link #createDateStyles(Workbook)}, only the date styles the values of the given
+     * types may need: a {@link LocalDate} column needs the date style only, a column of texts none.
+     *
+     * @param workbook   The workbook the cells belong to.
+     * @param valueTypes The declared types of the written values.
+     */
+    public void createDateStyles(Workbook workbook, Collection<? extends Class<?>> valueTypes) {
+        for (DateWriter<?> writer : List.of(localDateWriter, localDateTimeWriter, dateWriter, calendarWriter)) {
+            boolean needed = valueTypes.stream().anyMatch(type -> type.isAssignableFrom(writer.type));
+            if (needed && writer.defaultStyle == null) {
+                writer.defaultStyle = styleService.style(workbook, writer.descriptor);
+            }
+        }
+    }
+
+    private void writeAny(Cell cell, Object value) {
+        switch (value) {
+            case null -> cell.setBlank();
+            case String text -> CellUtils.writeValue(cell, text, stringStrategy);
+            case Double number -> cell.setCellValue(number);
+            case Number number -> cell.setCellValue(number.doubleValue());
+            case Boolean bool -> cell.setCellValue(bool);
+            case LocalDate date -> localDateWriter.write(cell, date);
+            case LocalDateTime dateTime -> localDateTimeWriter.write(cell, dateTime);
+            case Date date -> dateWriter.write(cell, date);
+            case Calendar calendar -> calendarWriter.write(cell, calendar);
+            default -> throw new IllegalStateException("Unexpected value type: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Writes dates with a date style, keeping the style derived for cells without a style of their own.
+     */
+    private final class DateWriter<T> implements CellWriter {
+
+        private final Class<T> type;
+        private final StyleDescriptor descriptor;
+        private final BiConsumer<Cell, T> setter;
+        private CellStyle defaultStyle;
+        // The styles derived from the template styles, by index of the template style
+        private CellStyle[] derivedStyles = new CellStyle[0];
+
+        private DateWriter(Class<T> type, String dataFormat, BiConsumer<Cell, T> setter) {
+            this.type = type;
+            this.descriptor = StyleDescriptor.builder().dataFormat(dataFormat).build();
+            this.setter = setter;
+        }
+
+        @Override
+        public void write(Cell cell, Object value) {
+            if (!type.isInstance(value)) {
+                generic.write(cell, value);
+                return;
+            }
+            setter.accept(cell, type.cast(value));
+            cell.setCellStyle(styleOf(cell));
+        }
+
+        private CellStyle styleOf(Cell cell) {
+            int baseStyleIndex = cell.getCellStyle().getIndex();
+            if (baseStyleIndex != 0) {
+                return derivedStyleOf(cell, baseStyleIndex);
+            }
+            if (defaultStyle == null) {
+                defaultStyle = styleService.style(cell.getSheet().getWorkbook(), descriptor);
+            }
+            return defaultStyle;
+        }
+
+        /**
+         * Keeps the template formatting of the cell, the style is interned once per template style and then
+         * resolved by the writer itself, without locking the style service for every cell.
+         */
+        private CellStyle derivedStyleOf(Cell cell, int baseStyleIndex) {
+            if (baseStyleIndex >= derivedStyles.length) {
+                derivedStyles = Arrays.copyOf(derivedStyles, Math.max(baseStyleIndex + 1, 2 * derivedStyles.length));
+            }
+            CellStyle style = derivedStyles[baseStyleIndex];
+            if (style == null) {
+                style = styleService.style(
+                        cell.getSheet().getWorkbook(),
+                        StyleDescriptor.builder()
+                                .baseStyle(baseStyleIndex)
+                                .dataFormat(descriptor.dataFormat())
+                                .build()
+                );
+                derivedStyles[baseStyleIndex] = style;
+            }
+            return style;
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.jspring.xls.writer;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.OutputStream;
+
+/**
+ * A {@link SXSSFWorkbook} compressing the parts of its package as described by a {@link ZipCompression},
+ * see {@link CompressingZipOutputStream}. The sheet parts are streamed from the temporary files to the
+ * zip stream as {@link SXSSFWorkbook} does, so a large sheet can be deflated by several threads.
+ */
+public class CompressingSXSSFWorkbook extends SXSSFWorkbook {
+
+    private final ZipCompression compression;
+    private final DeflaterPool pool;
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param compression           The compression of the parts of the package.
+     */
+    public CompressingSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            ZipCompression compression
+    ) {
+        this(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable, compression,
+                DeflaterPool.common());
+    }
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param compression           The compression of the parts of the package.
+     * @param pool                  The threads deflating the blocks of the parts compressed in parallel.
+     */
+    public CompressingSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            ZipCompression compression,
+            DeflaterPool pool
+    ) {
+        super(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable);
+        this.compression = compression;
+        this.pool = pool;
+    }
+
+    public ZipCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Creates a compressing zip stream, which adds the entries it stores or deflates in parallel as raw entries.
+     * As for {@link ParallelSXSSFWorkbook}, Zip64 records are only written for the parts that need them.
+     */
+    @Override
+    protected ZipArchiveOutputStream createArchiveOutputStream(OutputStream out) {
+        ZipArchiveOutputStream zos = new CompressingZipOutputStream(out, compression, pool);
+        zos.setUseZip64(zip64Mode == Zip64Mode.Always ? Zip64Mode.AsNeeded : zip64Mode);
+        return zos;
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.jspring.xls.writer;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * A zip stream compressing each entry as described by a {@link ZipCompression}.
+ * The beginning of an entry is held in memory until it reaches the stored threshold: smaller entries are then
+ * stored as is. Larger entries are deflated at the configured level, on the writing thread when the parallelism
+ * is 1. Otherwise, entries larger than a block are deflated by a {@link ParallelDeflaterOutputStream} and added
+ * to the package as raw entries.
+ * <p>
+ * A raw entry is added with its compressed size and CRC, which are only known once the entry is complete: the
+ * whole compressed entry is therefore held on the heap until then, e.g. tens of MB for the 300 MB XML of a large
+ * sheet. Only the entries deflated in parallel are held this way, with a parallelism of 1 the entries are streamed.
+ * <p>
+ * POI writes a {@link org.apache.poi.xssf.usermodel.XSSFWorkbook} to a zip stream it is given rather than
+ * creating its own, so the parts of any workbook can be compressed by passing it this stream.
+ */
+public final class CompressingZipOutputStream extends ZipArchiveOutputStream {
+
+    private final ZipCompression compression;
+    private final DeflaterPool pool;
+    private ZipArchiveEntry pending;
+    private final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream();
+    private final CRC32 crc = new CRC32();
+    private long size;
+    private ExposedByteArrayOutputStream compressed;
+    private ParallelDeflaterOutputStream deflater;
+
+    /**
+     * @param out         The stream receiving the package.
+     * @param compression The compression of the entries.
+     */
+    public CompressingZipOutputStream(OutputStream out, ZipCompression compression) {
+        this(out, compression, DeflaterPool.common());
+    }
+
+    /**
+     * @param out         The stream receiving the package.
+     * @param compression The compression of the entries.
+     * @param pool        The threads deflating the blocks of the entries compressed in parallel.
+     */
+    public CompressingZipOutputStream(OutputStream out, ZipCompression compression, DeflaterPool pool) {
+        super(out);
+        this.compression = compression;
+        this.pool = pool;
+        setLevel(compression.level());
+    }
+
+    @Override
+    public void putArchiveEntry(ZipArchiveEntry entry) throws IOException {
+        pending = entry;
+        buffer.reset();
+        crc.reset();
+        size = 0;
+        startCompressionIfLarge();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (pending == null) {
+            super.write(b, off, len);
+            return;
+        }
+        crc.update(b, off, len);
+        size += len;
+        if (deflater != null) {
+            deflater.write(b, off, len);
+        } else {
+            buffer.write(b, off, len);
+            startCompressionIfLarge();
+        }
+    }
+
+    @Override
+    public void closeArchiveEntry() throws IOException {
+        if (pending == null) {
+            super.closeArchiveEntry();
+            return;
+        }
+        ZipArchiveEntry entry = pending;
+        pending = null;
+        entry.setSize(size);
+        entry.setCrc(crc.getValue());
+        if (deflater != null) {
+            try {
+                deflater.finish();
+            } finally {
+                deflater = null;
+            }
+            addDeflated(entry, compressed);
+            compressed = null;
+        } else if (size < compression.storedThreshold()) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setCompressedSize(size);
+            addRawArchiveEntry(entry, new ByteArrayInputStream(buffer.buffer(), 0, buffer.size()));
+        } else {
+            // Smaller than a block, not worth handing to other threads
+            addDeflated(entry, deflate(buffer));
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            releaseDeflater();
+        } finally {
+            super.finish();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            releaseDeflater();
+        } finally {
+            super.close();
+        }
+    }
+
+    /**
+     * Stops buffering the entry once it is too large to be stored, or to be deflated as a single block.
+     */
+    private void startCompressionIfLarge() throws IOException {
+        boolean parallel = compression.parallelism() > 1;
+        int bufferLimit = parallel
+                ? Math.max(compression.storedThreshold(), compression.blockSize())
+                : compression.storedThreshold();
+        if (buffer.size() < bufferLimit) {
+            return;
+        }
+        if (parallel) {
+            compressed = new ExposedByteArrayOutputStream();
+            deflater = new ParallelDeflaterOutputStream(
+                    compressed, compression.level(), compression.parallelism(), compression.blockSize(), pool
+            );
+            deflater.write(buffer.buffer(), 0, buffer.size());
+        } else {
+            // Deflated by the zip stream itself, which computes the size and the CRC of the entry
+            ZipArchiveEntry entry = pending;
+            pending = null;
+            super.putArchiveEntry(entry);
+            super.write(buffer.buffer(), 0, buffer.size());
+        }
+        buffer.reset();
+    }
+
+    private void addDeflated(ZipArchiveEntry entry, ExposedByteArrayOutputStream data) throws IOException {
+        entry.setMethod(ZipEntry.DEFLATED);
+        entry.setCompressedSize(data.size());
+        addRawArchiveEntry(entry, new ByteArrayInputStream(data.buffer(), 0, data.size()));
+    }
+
+    private ExposedByteArrayOutputStream deflate(ExposedByteArrayOutputStream data) throws IOException {
+        ExposedByteArrayOutputStream deflated = new ExposedByteArrayOutputStream();
+        Deflater entryDeflater = new Deflater(compression.level(), true);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, entryDeflater)) {
+            out.write(data.buffer(), 0, data.size());
+        } finally {
+            entryDeflater.end();
+        }
+        return deflated;
+    }
+
+    private void releaseDeflater() throws IOException {
+        if (deflater != null) {
+            try {
+                deflater.finish();
+            } finally {
+                deflater = null;
+                compressed = null;
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Gives access to the buffered data, to add it to the package without copying it.
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.jspring.xls.writer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads deflating the blocks of the large parts, see {@link ParallelDeflaterOutputStream}.
+ * A pool is shared by every write, so that the number of compressing threads does not grow with the number of parts
+ * or of concurrent writes: the parallelism of a {@link ZipCompression} only bounds the blocks a part has pending.
+ * The configuration owns a pool and closes it on shutdown, the streams created without a pool use the
+ * {@linkplain #common() common pool}, sized to the number of processors.
+ */
+public final class DeflaterPool implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int threads;
+
+    /**
+     * @param threads The number of threads deflating blocks, for all the writes sharing the pool.
+     */
+    public DeflaterPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive, got " + threads);
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "xlsx-deflater-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the pool used by the streams created without a pool, created the first time only.
+     * Its threads are daemon threads.
+     *
+     * @return The common pool.
+     */
+    public static DeflaterPool common() {
+        return CommonPool.INSTANCE;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Stops the threads, the blocks still pending are not deflated. The common pool is never stopped.
+     */
+    @Override
+    public void close() {
+        if (this != common()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class CommonPool {
+
+        private static final DeflaterPool INSTANCE = new DeflaterPool(Runtime.getRuntime().availableProcessors());
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.jspring.xls.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream writing raw DEFLATE data, as stored in a zip entry, compressed by several threads.
+ * The data is cut in blocks deflated independently, each one primed with the last 32 KiB of the previous block
+ * as preset dictionary so that matches can still reach back across the block boundary. Every block but the last
+ * ends with a sync flush, which aligns it on a byte boundary without ending the stream, so that the compressed
+ * blocks simply follow each other in the output, in the order of the data.
+ * <p>
+ * The blocks are deflated by a {@link DeflaterPool} shared with the other writes. At most two blocks per unit of
+ * parallelism are pending at any time, the writer waits for the oldest one beyond that, and the leading blocks are
+ * written as soon as they are deflated. The output is usually a little larger than the output of a single
+ * {@link Deflater} at the same level.
+ */
+public class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private final int level;
+    private final int maxPendingBlocks;
+    private final DeflaterPool pool;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private byte[] block;
+    private int count;
+    private byte[] dictionary;
+    private boolean finished;
+
+    /**
+     * @param out         The stream receiving the compressed data.
+     * @param level       The compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param parallelism The number of blocks compressed at the same time.
+     * @param blockSize   The size in bytes of the uncompressed blocks.
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level, int parallelism, int blockSize) {
+        this(out, level, parallelism, blockSize, DeflaterPool.common());
+    }
+
+    /**
+     * @param out         The stream receiving the compressed data.
+     * @param level       The compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param parallelism The number of blocks compressed at the same time, at most the threads of the pool.
+     * @param blockSize   The size in bytes of the uncompressed blocks.
+     * @param pool        The threads deflating the blocks.
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, int level, int parallelism, int blockSize,
+                                        DeflaterPool pool) {
+        super(out);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive, got " + parallelism);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive, got " + blockSize);
+        }
+        this.level = level;
+        this.maxPendingBlocks = 2 * parallelism;
+        this.pool = pool;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream finished");
+        }
+        while (len > 0) {
+            int copied = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, copied);
+            count += copied;
+            off += copied;
+            len -= copied;
+            if (count == block.length) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Compresses the remaining data and writes the end of the DEFLATE stream, without closing the target stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        submitBlock(true);
+        while (!pendingBlocks.isEmpty()) {
+            writeOldestBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        if (pendingBlocks.size() >= maxPendingBlocks) {
+            writeOldestBlock();
+        }
+        byte[] data = block;
+        int length = count;
+        byte[] preset = dictionary;
+        pendingBlocks.add(pool.submit(() -> deflate(data, length, preset, last)));
+        writeDeflatedBlocks();
+
+        if (!last) {
+            // The block handed to the task is not reused, the next one starts from a fresh array
+            int dictionaryLength = Math.min(DICTIONARY_SIZE, length);
+            dictionary = Arrays.copyOfRange(data, length - dictionaryLength, length);
+            block = new byte[block.length];
+            count = 0;
+        }
+    }
+
+    private byte[] deflate(byte[] data, int length, byte[] preset, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (preset != null) {
+                deflater.setDictionary(preset);
+            }
+            deflater.setInput(data, 0, length);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 4));
+            byte[] buffer = new byte[Math.min(Math.max(length, 64), 64 * 1024)];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // The output buffer is not filled once the whole input has been flushed
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Writes the leading blocks already deflated, which releases them without waiting for the pending limit.
+     */
+    private void writeDeflatedBlocks() throws IOException {
+        while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()) {
+            writeOldestBlock();
+        }
+    }
+
+    private void writeOldestBlock() throws IOException {
+        Future<byte[]> oldest = pendingBlocks.removeFirst();
+        try {
+            out.write(oldest.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelPendingBlocks();
+            throw new InterruptedIOException("Interrupted while compressing a block");
+        } catch (ExecutionException e) {
+            cancelPendingBlocks();
+            throw new IOException("Failed to compress a block", e.getCause());
+        }
+    }
+
+    private void cancelPendingBlocks() {
+        pendingBlocks.forEach(block -> block.cancel(true));
+        pendingBlocks.clear();
+    }
+
+}
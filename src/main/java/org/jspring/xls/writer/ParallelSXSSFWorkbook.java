@@ -0,0 +1,470 @@
+package org.jspring.xls.writer;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.openxml4j.util.ZipArchiveThresholdInputStream;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFChartSheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * A {@link SXSSFWorkbook} rendering and compressing the XML parts of its sheets on the threads of a
+ * {@link SheetRenderPool} shared with the other writes. Each sheet part, the template part with the streamed rows
+ * injected, is deflated in memory by its own task, then the parts are added to the package in the order of the
+ * template entries, so that the output does not depend on the scheduling of the tasks. The other parts are copied
+ * on the calling thread, as {@link SXSSFWorkbook} does.
+ * <p>
+ * Every rendered sheet part stays on the heap, compressed, until it is written in template order: a part rendered
+ * before the parts preceding it waits for them. At most {@code parallelism} sheet parts of a write are rendering
+ * or waiting at any time, the next sheet is only handed to the pool once the oldest pending part is written.
+ * <p>
+ * The parts are compressed as described by a {@link ZipCompression}: the sheet parts smaller than its stored
+ * threshold are stored, the others deflated at its level, split in blocks deflated by a {@link DeflaterPool}
+ * when its parallelism is greater than 1, and the other parts by a {@link CompressingZipOutputStream}.
+ */
+public class ParallelSXSSFWorkbook extends SXSSFWorkbook {
+
+    private static final String SHEET_DATA = "<sheetData";
+    private static final String SHEET_DATA_END = "</sheetData>";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int parallelism;
+    private final ZipCompression compression;
+    private final DeflaterPool pool;
+    private final SheetRenderPool renderPool;
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param parallelism           The maximum number of sheet parts rendered at the same time.
+     */
+    public ParallelSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            int parallelism
+    ) {
+        this(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable, parallelism,
+                ZipCompression.DEFAULT);
+    }
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param parallelism           The maximum number of sheet parts rendered at the same time.
+     * @param compression           The compression of the parts of the package.
+     */
+    public ParallelSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            int parallelism,
+            ZipCompression compression
+    ) {
+        this(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable, parallelism, compression,
+                DeflaterPool.common());
+    }
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param parallelism           The maximum number of sheet parts rendered at the same time.
+     * @param compression           The compression of the parts of the package.
+     * @param pool                  The threads deflating the blocks of the parts compressed in parallel.
+     */
+    public ParallelSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            int parallelism,
+            ZipCompression compression,
+            DeflaterPool pool
+    ) {
+        this(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable, parallelism, compression, pool,
+                SheetRenderPool.common());
+    }
+
+    /**
+     * @param workbook              The workbook used as template.
+     * @param rowAccessWindowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param compressTmpFiles      Whether the temporary sheet files are gzip compressed.
+     * @param useSharedStringsTable Whether texts go to the shared strings table rather than inline in the cells.
+     * @param parallelism           The maximum number of sheet parts rendered at the same time.
+     * @param compression           The compression of the parts of the package.
+     * @param pool                  The threads deflating the blocks of the parts compressed in parallel.
+     * @param renderPool            The threads rendering the sheet parts.
+     */
+    public ParallelSXSSFWorkbook(
+            XSSFWorkbook workbook,
+            int rowAccessWindowSize,
+            boolean compressTmpFiles,
+            boolean useSharedStringsTable,
+            int parallelism,
+            ZipCompression compression,
+            DeflaterPool pool,
+            SheetRenderPool renderPool
+    ) {
+        super(workbook, rowAccessWindowSize, compressTmpFiles, useSharedStringsTable);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.compression = compression;
+        this.pool = pool;
+        this.renderPool = renderPool;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ZipCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Creates a plain zip stream, the OPC stream used by {@link SXSSFWorkbook} for {@link Zip64Mode#Always}
+     * does not support raw entries. Zip64 records are then only written for the parts that need them,
+     * which keeps the package readable by Excel as long as no part exceeds 4 GB.
+     */
+    @Override
+    protected ZipArchiveOutputStream createArchiveOutputStream(OutputStream out) {
+        ZipArchiveOutputStream zos = compression.isDefault()
+                ? new ZipArchiveOutputStream(out)
+                : new CompressingZipOutputStream(out, compression, pool);
+        zos.setUseZip64(zip64Mode == Zip64Mode.Always ? Zip64Mode.AsNeeded : zip64Mode);
+        return zos;
+    }
+
+    @Override
+    protected void injectData(ZipEntrySource zipEntrySource, OutputStream out) throws IOException {
+        ZipArchiveOutputStream zos = createArchiveOutputStream(out);
+        List<? extends ZipArchiveEntry> entries = Collections.list(zipEntrySource.getEntries());
+        List<SXSSFSheet> sheets = entries.stream().map(this::streamingSheetOf).toList();
+        List<Callable<CompressedPart>> renderings = new ArrayList<>(entries.size());
+        List<Future<CompressedPart>> sheetParts = new ArrayList<>(Collections.nCopies(entries.size(), null));
+
+        try {
+            // The template parts are read on this thread, only the rendering runs on the pool
+            for (int i = 0; i < entries.size(); i++) {
+                ZipArchiveEntry entry = entries.get(i);
+                if (sheets.get(i) == null) {
+                    renderings.add(null);
+                    continue;
+                }
+                byte[] templatePart = readEntry(zipEntrySource, entry);
+                ISheetInjector injector = createSheetInjector(sheets.get(i));
+                renderings.add(() -> renderSheetPart(entry, templatePart, injector));
+            }
+
+            int submitted = 0;
+            int pending = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                // The pending parts all precede the next one to submit, so the current part is submitted in time
+                for (; submitted < entries.size() && pending < parallelism; submitted++) {
+                    if (renderings.get(submitted) != null) {
+                        sheetParts.set(submitted, renderPool.submit(renderings.get(submitted)));
+                        pending++;
+                    }
+                }
+                Future<CompressedPart> sheetPart = sheetParts.get(i);
+                if (sheetPart == null) {
+                    copyEntry(zipEntrySource, entries.get(i), zos);
+                } else {
+                    CompressedPart part = await(sheetPart, sheetParts);
+                    sheetParts.set(i, null);
+                    pending--;
+                    zos.addRawArchiveEntry(part.entry(), new ByteArrayInputStream(part.data(), 0, part.length()));
+                }
+            }
+        } finally {
+            // The parts of a failed write are not rendered for nothing
+            cancel(sheetParts);
+            zos.finish();
+            zipEntrySource.close();
+        }
+    }
+
+    private SXSSFSheet streamingSheetOf(ZipArchiveEntry entry) {
+        XSSFSheet sheet = getSheetFromZipEntryName(entry.getName());
+        // Chart sheets have no rows to inject
+        if (sheet == null || sheet instanceof XSSFChartSheet) {
+            return null;
+        }
+        return getSheet(sheet.getSheetName());
+    }
+
+    /**
+     * Renders the XML part of a sheet, the template part with the streamed rows injected in its
+     * {@code sheetData} element, as {@link SXSSFWorkbook} does, and deflates it unless it is smaller than the
+     * stored threshold.
+     */
+    private CompressedPart renderSheetPart(ZipArchiveEntry templateEntry, byte[] templatePart, ISheetInjector injector)
+            throws IOException {
+        String template = new String(templatePart, StandardCharsets.UTF_8);
+        String head;
+        String tail;
+        int start = template.indexOf(SHEET_DATA);
+        if (start < 0) {
+            head = template + "<sheetData>\n";
+            tail = "";
+        } else {
+            int startEnd = template.indexOf('>', start);
+            if (template.charAt(startEnd - 1) == '/') {
+                head = template.substring(0, start) + "<sheetData>\n";
+                tail = template.substring(startEnd + 1);
+            } else {
+                // The rows of the template are kept before the streamed rows
+                int end = template.indexOf(SHEET_DATA_END, startEnd);
+                head = template.substring(0, end);
+                tail = template.substring(end + SHEET_DATA_END.length());
+            }
+        }
+
+        PartOutputStream data = new PartOutputStream();
+        ChecksumOutputStream part = new ChecksumOutputStream(data);
+        // Closed before its size and CRC are read, which completes the compressed data
+        try (part) {
+            part.write(head.getBytes(StandardCharsets.UTF_8));
+            injector.writeSheetData(part);
+            part.write(SHEET_DATA_END.getBytes(StandardCharsets.UTF_8));
+            part.write(tail.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ExposedByteArrayOutputStream bytes = data.bytes();
+        ZipArchiveEntry entry = new ZipArchiveEntry(templateEntry.getName());
+        entry.setMethod(data.isStored() ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        entry.setSize(part.size());
+        entry.setCrc(part.crc());
+        entry.setCompressedSize(bytes.size());
+        if (templateEntry.getTime() >= 0) {
+            entry.setTime(templateEntry.getTime());
+        }
+        return new CompressedPart(entry, bytes.buffer(), bytes.size());
+    }
+
+    private static byte[] readEntry(ZipEntrySource zipEntrySource, ZipArchiveEntry entry) throws IOException {
+        try (InputStream is = openEntry(zipEntrySource, entry)) {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    private static void copyEntry(ZipEntrySource zipEntrySource, ZipArchiveEntry entry, ZipArchiveOutputStream zos)
+            throws IOException {
+        ZipArchiveEntry copy = new ZipArchiveEntry(entry.getName());
+        if (entry.getSize() >= 0) {
+            copy.setSize(entry.getSize());
+        }
+        if (entry.getTime() >= 0) {
+            copy.setTime(entry.getTime());
+        }
+        zos.putArchiveEntry(copy);
+        try (InputStream is = openEntry(zipEntrySource, entry)) {
+            IOUtils.copy(is, zos);
+        } finally {
+            zos.closeArchiveEntry();
+        }
+    }
+
+    private static InputStream openEntry(ZipEntrySource zipEntrySource, ZipArchiveEntry entry) throws IOException {
+        InputStream is = zipEntrySource.getInputStream(entry);
+        // The template was written by this workbook, it is not checked against zip bombs
+        if (is instanceof ZipArchiveThresholdInputStream thresholdInputStream) {
+            thresholdInputStream.setGuardState(false);
+        }
+        return is;
+    }
+
+    private static CompressedPart await(Future<CompressedPart> sheetPart, List<Future<CompressedPart>> sheetParts)
+            throws IOException {
+        try {
+            return sheetPart.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(sheetParts);
+            throw new IOException("Interrupted while rendering the sheet parts", e);
+        } catch (ExecutionException e) {
+            cancel(sheetParts);
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to render a sheet part", e.getCause());
+        }
+    }
+
+    private static void cancel(List<Future<CompressedPart>> sheetParts) {
+        sheetParts.stream()
+                .filter(Objects::nonNull)
+                .forEach(part -> part.cancel(true));
+    }
+
+    /**
+     * A deflated part ready to be added to the package as is.
+     */
+    private record CompressedPart(ZipArchiveEntry entry, byte[] data, int length) {
+    }
+
+    /**
+     * Gives access to the buffer of the compressed data, to add it to the package without copying it.
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private ExposedByteArrayOutputStream() {
+            super(BUFFER_SIZE);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    /**
+     * Holds the beginning of a sheet part until it reaches the stored threshold, then deflates it:
+     * a part smaller than the threshold is stored as is.
+     */
+    private final class PartOutputStream extends OutputStream {
+
+        private final ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream();
+        private OutputStream deflating;
+
+        private PartOutputStream() throws IOException {
+            if (compression.storedThreshold() == 0) {
+                startDeflating();
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (deflating != null) {
+                deflating.write(b, off, len);
+                return;
+            }
+            bytes.write(b, off, len);
+            if (bytes.size() >= compression.storedThreshold()) {
+                startDeflating();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflating != null) {
+                deflating.close();
+            }
+        }
+
+        boolean isStored() {
+            return deflating == null;
+        }
+
+        /**
+         * @return The stored part, or the deflated part once closed.
+         */
+        ExposedByteArrayOutputStream bytes() {
+            return bytes;
+        }
+
+        private void startDeflating() throws IOException {
+            byte[] buffered = bytes.toByteArray();
+            bytes.reset();
+            deflating = compression.parallelism() > 1
+                    ? new ParallelDeflaterOutputStream(bytes, compression.level(), compression.parallelism(),
+                            compression.blockSize(), pool)
+                    : new EndingDeflaterOutputStream(bytes, new Deflater(compression.level(), true));
+            deflating.write(buffered);
+        }
+    }
+
+    /**
+     * Releases the native memory of its deflater when closed, which {@link DeflaterOutputStream} only does for
+     * the deflater it creates itself.
+     */
+    private static final class EndingDeflaterOutputStream extends DeflaterOutputStream {
+
+        private EndingDeflaterOutputStream(OutputStream out, Deflater deflater) {
+            super(out, deflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Computes the size and the CRC-32 of the uncompressed part.
+     */
+    private static final class ChecksumOutputStream extends FilterOutputStream {
+
+        private final CRC32 crc = new CRC32();
+        private long size;
+
+        private ChecksumOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            size += len;
+        }
+
+        long size() {
+            return size;
+        }
+
+        long crc() {
+            return crc.getValue();
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.jspring.xls.writer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads rendering the sheet parts of the streaming workbooks written in parallel, see
+ * {@link ParallelSXSSFWorkbook}. A pool is shared by every write, so that the number of rendering threads does not
+ * grow with the number of concurrent writes: the parallelism of a workbook only bounds the sheets it has pending.
+ * The configuration owns a pool and closes it on shutdown, the workbooks created without a pool use the
+ * {@linkplain #common() common pool}, sized to the number of processors.
+ * <p>
+ * The renderers wait for the blocks they hand to a {@link DeflaterPool}, which must therefore be another pool.
+ */
+public final class SheetRenderPool implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int threads;
+
+    /**
+     * @param threads The number of threads rendering sheet parts, for all the writes sharing the pool.
+     */
+    public SheetRenderPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive, got " + threads);
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "xlsx-sheet-renderer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the pool used by the workbooks created without a pool, created the first time only.
+     * Its threads are daemon threads.
+     *
+     * @return The common pool.
+     */
+    public static SheetRenderPool common() {
+        return CommonPool.INSTANCE;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Stops the threads, the sheet parts still pending are not rendered. The common pool is never stopped.
+     */
+    @Override
+    public void close() {
+        if (this != common()) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class CommonPool {
+
+        private static final SheetRenderPool INSTANCE =
+                new SheetRenderPool(Runtime.getRuntime().availableProcessors());
+    }
+
+}
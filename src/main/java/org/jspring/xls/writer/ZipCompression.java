@@ -0,0 +1,60 @@
+package org.jspring.xls.writer;
+
+import java.util.zip.Deflater;
+
+/**
+ * Describes how the parts of a written package are compressed, trading the size of the file for the time
+ * spent writing it.
+ *
+ * @param level           The DEFLATE level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+ * @param storedThreshold The size in bytes under which a part is stored without compression,
+ *                        0 to compress every part.
+ * @param parallelism     The number of blocks of a large part compressed at the same time by a {@link DeflaterPool},
+ *                        1 to compress each part on the writing thread, see {@link ParallelDeflaterOutputStream}.
+ * @param blockSize       The size in bytes of the blocks compressed in parallel.
+ */
+public record ZipCompression(int level, int storedThreshold, int parallelism, int blockSize) {
+
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * The compression of POI: every part deflated at the default level on the writing thread.
+     */
+    public static final ZipCompression DEFAULT =
+            new ZipCompression(Deflater.DEFAULT_COMPRESSION, 0, 1, DEFAULT_BLOCK_SIZE);
+
+    public ZipCompression {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level must be between -1 and 9, got " + level);
+        }
+        if (storedThreshold < 0) {
+            throw new IllegalArgumentException("storedThreshold must not be negative, got " + storedThreshold);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive, got " + parallelism);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive, got " + blockSize);
+        }
+    }
+
+    /**
+     * Returns the default compression with another level.
+     *
+     * @param level The DEFLATE level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @return The compression deflating every part at the given level.
+     */
+    public static ZipCompression ofLevel(int level) {
+        return new ZipCompression(level, 0, 1, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Checks if the parts are compressed as POI does, in which case the packages are written by POI alone.
+     *
+     * @return True if this is the default compression, false otherwise.
+     */
+    public boolean isDefault() {
+        return level == Deflater.DEFAULT_COMPRESSION && storedThreshold == 0 && parallelism == 1;
+    }
+
+}
@@ -1,10 +1,18 @@
 package org.jspring.xls;
 
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.WorkbookPool;
 import org.jspring.xls.config.XlsConfiguration;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxCellsWritingService;
 import org.jspring.xls.service.XlsxReadingService;
 import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxStyleService;
 import org.jspring.xls.service.XlsxTableService;
 import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.warmup.XlsWarmupRunner;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
@@ -24,7 +32,57 @@ class AutoconfiguredApplicationTest {
             assertThat(context).hasSingleBean(XlsxWritingService.class);
             assertThat(context).hasSingleBean(XlsxSearchingService.class);
             assertThat(context).hasSingleBean(XlsxTableService.class);
+            assertThat(context).hasSingleBean(XlsxCellsWritingService.class);
+            assertThat(context).hasSingleBean(XlsOperationService.class);
+            assertThat(context).hasSingleBean(XlsxStyleService.class);
         });
     }
 
+    @Test
+    void shouldApplyDefaultWriteMode() {
+        runner.withPropertyValues("spring.export.xlsx.write-mode=streaming")
+                .run(context -> assertThat(context.getBean(XlsxWritingService.class).defaultWriteMode())
+                        .isEqualTo(WriteMode.STREAMING));
+    }
+
+    @Test
+    void shouldStoreStreamedTextsInlineUnlessAStrategyIsSet() {
+        runner.run(context -> {
+            XlsxCellsWritingService cellsWritingService = context.getBean(XlsxCellsWritingService.class);
+            assertThat(cellsWritingService.defaultStringStrategy()).isEqualTo(StringStrategy.SHARED);
+            assertThat(cellsWritingService.streamingStringStrategy()).isEqualTo(StringStrategy.INLINE);
+        });
+        runner.withPropertyValues("spring.export.xlsx.strings.strategy=shared")
+                .run(context -> assertThat(context.getBean(XlsxCellsWritingService.class).streamingStringStrategy())
+                        .isEqualTo(StringStrategy.SHARED));
+    }
+
+    @Test
+    void shouldCreateTemplateCacheOnlyWhenEnabled() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(TemplateCache.class));
+        runner.withPropertyValues("spring.export.xlsx.cache.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(TemplateCache.class));
+    }
+
+    @Test
+    void shouldCreateWorkbookPoolOnlyWhenEnabled() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(WorkbookPool.class));
+        runner.withPropertyValues("spring.export.xlsx.pool.enabled=true", "spring.export.xlsx.pool.size=1")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(WorkbookPool.class);
+                    assertThat(context.getBean(XlsxReadingService.class).readFromTemplate()).isNotNull();
+                });
+    }
+
+    @Test
+    void shouldCreateWarmupRunnerOnlyWhenEnabled() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(XlsWarmupRunner.class));
+        runner.withPropertyValues("spring.export.xlsx.warmup.enabled=true", "spring.export.xlsx.warmup.iterations=1")
+                .run(context -> {
+                    XlsWarmupRunner warmupRunner = context.getBean(XlsWarmupRunner.class);
+                    warmupRunner.warmUp();
+                    assertThat(warmupRunner.completed()).isTrue();
+                });
+    }
+
 }
@@ -0,0 +1,103 @@
+package org.jspring.xls;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.annotation.XlsColumn;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.CellSearch;
+import org.jspring.xls.domain.RowView;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxTableService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the read, write, streaming and mapping paths of the starter end to end. Run as a native image with
+ * {@code mvn -PnativeTest test} (GraalVM required), it checks the runtime hints of the starter are complete.
+ */
+@SpringBootTest
+class NativeSmokeTest {
+
+    private static final String SHEET_NAME = "One";
+    private static final String ORDERS_SHEET_NAME = "Orders";
+
+    @Autowired
+    private XlsxReadingService readingService;
+    @Autowired
+    private XlsxWritingService writingService;
+    @Autowired
+    private XlsxCellsWritingService cellsWritingService;
+    @Autowired
+    private XlsxTableService tableService;
+
+    @TempDir
+    Path tempDir;
+
+    public record Order(
+            @XlsColumn(header = "Reference", order = 0) String reference,
+            @XlsColumn(order = 1) double amount,
+            @XlsColumn(order = 2) LocalDate shipped
+    ) {
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @RegisterReflectionForBinding(Order.class)
+    static class MappedTypes {
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        XSSFWorkbook workbook = readingService.readFromTemplate();
+        Sheet sheet = workbook.getSheet(SHEET_NAME);
+        cellsWritingService.writeTopToBottom(sheet, new StartPoint(30, 0),
+                new TableData<>(List.of("text", 1.5, LocalDate.of(2024, 1, 31), true), 2, 2));
+        workbook.createSheet(ORDERS_SHEET_NAME);
+        tableService.populateWorksheetWithBeans(
+                new CellSearch<>(new SheetInfo(workbook, ORDERS_SHEET_NAME), new CellCoordinates<>(0, 0, null, null)),
+                Order.class,
+                List.of(new Order("A-1", 10.5, LocalDate.of(2024, 2, 1)))
+        );
+
+        byte[] written = writingService.writeAsByteArray(workbook);
+        try (XSSFWorkbook read = readingService.readFromByteArray(written)) {
+            assertEquals("text", read.getSheet(SHEET_NAME).getRow(30).getCell(0).getStringCellValue());
+            assertEquals(
+                    List.of(new Order("A-1", 10.5, LocalDate.of(2024, 2, 1))),
+                    readingService.readRecords(read.getSheet(ORDERS_SHEET_NAME), Order.class, true)
+            );
+        }
+    }
+
+    @Test
+    void streamingRoundTrip() throws Exception {
+        SXSSFWorkbook workbook = writingService.toStreamingWorkbook(readingService.readFromTemplate());
+        cellsWritingService.writeTopToBottom(workbook.getSheet(SHEET_NAME), new StartPoint(30, 0),
+                new TableData<>(List.of("a", "b", "c"), 3, 1));
+        Path output = tempDir.resolve("streamed.xlsx");
+        writingService.writeFile(workbook, output.toString());
+
+        assertTrue(Files.size(output) > 0);
+        try (Stream<RowView> rows = readingService.streamRows(output.toString(), SHEET_NAME)) {
+            assertTrue(rows.anyMatch(row -> row.rowNumber() == 32));
+        }
+    }
+
+}
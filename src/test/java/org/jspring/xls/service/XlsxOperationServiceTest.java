@@ -1,15 +1,24 @@
 package org.jspring.xls.service;
 
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.jspring.xls.builder.WorkbookOperation;
 import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.OperationResult;
 import org.jspring.xls.domain.SheetInfo;
 import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.writer.ZipCompression;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.AbstractMap.SimpleEntry;
 
@@ -182,6 +191,222 @@ public class XlsxOperationServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test streaming write below the template rows")
+    public void testStreamingWrite() {
+        // Arrange
+        List<String> values = List.of("Data1", "Data2", "Data3", "Data4", "Data5");
+
+        WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                .startAt(SHEET_NAME, 25, 1)
+                .data(new TableData<>(values, 3, 2))
+                .writeMode(WriteMode.STREAMING)
+                .saveAs(OUTPUT_FILE_PATH)
+                .build();
+
+        // Act
+        operationService.execute(operation);
+
+        // Assert
+        XSSFWorkbook workbook = readingService.readFromTemplate(OUTPUT_FILE_PATH);
+        SheetInfo sheetInfo = new SheetInfo(workbook, SHEET_NAME);
+
+        assertEquals(values.get(0), sheetInfo.getSheet().getRow(25).getCell(1).getStringCellValue());
+        assertEquals(values.get(1), sheetInfo.getSheet().getRow(26).getCell(1).getStringCellValue());
+        assertEquals(values.get(2), sheetInfo.getSheet().getRow(27).getCell(1).getStringCellValue());
+        assertEquals(values.get(3), sheetInfo.getSheet().getRow(25).getCell(2).getStringCellValue());
+        assertEquals(values.get(4), sheetInfo.getSheet().getRow(26).getCell(2).getStringCellValue());
+        assertEquals("TARGET", sheetInfo.getSheet().getRow(6).getCell(4).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test streaming write stores its texts inline by default")
+    public void testStreamingWriteInlineByDefault() {
+        // Arrange
+        WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                .startAt(SHEET_NAME, 25, 1)
+                .data(new TableData<>(List.of("Data1", "Data2"), 2, 1))
+                .writeMode(WriteMode.STREAMING)
+                .saveAs(OUTPUT_FILE_PATH)
+                .build();
+
+        // Act
+        operationService.execute(operation);
+
+        // Assert
+        XSSFWorkbook workbook = readingService.readFromTemplate(OUTPUT_FILE_PATH);
+        XSSFCell cell = workbook.getSheet(SHEET_NAME).getRow(26).getCell(1);
+        assertEquals("Data2", cell.getStringCellValue());
+        assertEquals(STCellType.INLINE_STR, cell.getCTCell().getT());
+    }
+
+    @Test
+    @DisplayName("Test executing operations to an output stream")
+    public void testExecuteToOutputStream() throws IOException {
+        // Arrange
+        List<String> values = List.of("Data1", "Data2", "Data3");
+        for (WriteMode writeMode : WriteMode.values()) {
+            WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                    .startAt(SHEET_NAME, 25, 1)
+                    .data(new TableData<>(values, 3, 1))
+                    .writeMode(writeMode)
+                    .build();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // Act
+            operationService.execute(operation, out);
+
+            // Assert
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                SheetInfo sheetInfo = new SheetInfo(workbook, SHEET_NAME);
+                assertEquals(values.get(2), sheetInfo.getSheet().getRow(27).getCell(1).getStringCellValue());
+                assertEquals("TARGET", sheetInfo.getSheet().getRow(6).getCell(4).getStringCellValue());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test executing operations with their own compression")
+    public void testExecuteWithCompression() throws IOException {
+        // Arrange
+        List<String> values = List.of("Data1", "Data2", "Data3");
+        for (WriteMode writeMode : WriteMode.values()) {
+            Map<Integer, Integer> sizes = new HashMap<>();
+            for (int level : new int[]{0, 9}) {
+                WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                        .startAt(SHEET_NAME, 25, 1)
+                        .data(new TableData<>(values, 3, 1))
+                        .writeMode(writeMode)
+                        .compression(ZipCompression.ofLevel(level))
+                        .build();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                // Act
+                operationService.execute(operation, out);
+
+                // Assert
+                sizes.put(level, out.size());
+                try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                    SheetInfo sheetInfo = new SheetInfo(workbook, SHEET_NAME);
+                    assertEquals(values.get(2), sheetInfo.getSheet().getRow(27).getCell(1).getStringCellValue());
+                }
+            }
+            assertTrue(sizes.get(0) > sizes.get(9), "Stored parts should be larger than deflated ones");
+        }
+    }
+
+    @Test
+    @DisplayName("Test streaming write inside the template rows is rejected")
+    public void testStreamingWriteInsideTemplateRows() {
+        // Arrange
+        List<String> values = List.of("Data1", "Data2");
+
+        WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                .startAt(SHEET_NAME, "TARGET")
+                .data(new TableData<>(values, 2, 1))
+                .writeMode(WriteMode.STREAMING)
+                .saveAs(OUTPUT_FILE_PATH)
+                .build();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> operationService.execute(operation));
+    }
+
+    @Test
+    @DisplayName("Batch execution should report a result for every operation, in order")
+    public void testExecuteAll() {
+        // Arrange
+        XlsOperationService batchService = new XlsOperationService(
+                readingService, new XlsxWritingService(), new XlsxCellsWritingService(), searchingService,
+                2, true
+        );
+        List<WorkbookOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            operations.add(builder(TEMPLATE_PATH)
+                    .startAt(SHEET_NAME, 0, 0)
+                    .data(new TableData<>(List.of("batch" + i), 1, 1))
+                    .saveAs("src/main/resources/output/batch-" + i + ".xlsx")
+                    .build());
+        }
+        operations.add(2, builder("src/main/resources/template/Missing.xlsx")
+                .startAt(SHEET_NAME, 0, 0)
+                .data(new TableData<>(List.of("missing"), 1, 1))
+                .saveAs("src/main/resources/output/batch-missing.xlsx")
+                .build());
+
+        // Act
+        List<OperationResult> results = batchService.executeAll(operations);
+
+        // Assert
+        assertEquals(operations.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertSame(operations.get(i), results.get(i).operation());
+        }
+        assertFalse(results.get(2).succeeded());
+        assertEquals(4, results.stream().filter(OperationResult::succeeded).count());
+
+        XSSFWorkbook workbook = readingService.readFromTemplate("src/main/resources/output/batch-3.xlsx");
+        assertEquals("batch3", workbook.getSheet(SHEET_NAME).getRow(0).getCell(0).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Batch execution should report an Error as the result of its operation only")
+    public void testExecuteAllWithError() {
+        // Arrange
+        XlsOperationService batchService = new XlsOperationService(
+                readingService, new XlsxWritingService(), new XlsxCellsWritingService(), searchingService,
+                2, false
+        ) {
+            @Override
+            protected void execute(WorkbookOperation operation, XSSFWorkbook workbook) {
+                if (operation.getOutputPath().endsWith("error.xlsx")) {
+                    throw new StackOverflowError();
+                }
+                super.execute(operation, workbook);
+            }
+        };
+        List<WorkbookOperation> operations = List.of(
+                builder(TEMPLATE_PATH)
+                        .startAt(SHEET_NAME, 0, 0)
+                        .data(new TableData<>(List.of("error"), 1, 1))
+                        .saveAs("src/main/resources/output/batch-error.xlsx")
+                        .build(),
+                builder(TEMPLATE_PATH)
+                        .startAt(SHEET_NAME, 0, 0)
+                        .data(new TableData<>(List.of("ok"), 1, 1))
+                        .saveAs("src/main/resources/output/batch-ok.xlsx")
+                        .build()
+        );
+
+        // Act
+        List<OperationResult> results = batchService.executeAll(operations);
+
+        // Assert
+        assertInstanceOf(StackOverflowError.class, results.get(0).error());
+        assertTrue(results.get(1).succeeded());
+    }
+
+    @Test
+    @DisplayName("Batch execution should reject an operation without template before executing any")
+    public void testExecuteAllWithoutTemplatePath() {
+        List<WorkbookOperation> operations = List.of(
+                builder(TEMPLATE_PATH)
+                        .startAt(SHEET_NAME, 0, 0)
+                        .data(new TableData<>(List.of("first"), 1, 1))
+                        .saveAs("src/main/resources/output/batch-first.xlsx")
+                        .build(),
+                builder(null)
+                        .startAt(SHEET_NAME, 0, 0)
+                        .data(new TableData<>(List.of("none"), 1, 1))
+                        .saveAs("src/main/resources/output/batch-none.xlsx")
+                        .build()
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> operationService.executeAll(operations));
+        assertFalse(new File("src/main/resources/output/batch-first.xlsx").exists());
+    }
+
+
     private List<Cell> getCellsFromCoordinatesMap(List<SimpleEntry<Integer, Integer>> entries) {
         XSSFWorkbook workbook = readingService.readFromTemplate(OUTPUT_FILE_PATH);
         SheetInfo sheetInfo = new SheetInfo(workbook, SHEET_NAME);
@@ -0,0 +1,163 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.StyleDescriptor;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxStyleService;
+import org.jspring.xls.writer.CellWriter;
+import org.jspring.xls.writer.CellWriters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CellWritersTest {
+    private static final String SHEET_NAME = "Writers";
+    private XSSFWorkbook workbook;
+    private XSSFSheet sheet;
+    private XlsxCellsWritingService cellsWritingService;
+
+    @BeforeEach
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        sheet = workbook.createSheet(SHEET_NAME);
+        cellsWritingService = new XlsxCellsWritingService();
+    }
+
+    @Test
+    @DisplayName("Longs, decimals, dates and nulls should be written with their own column writers")
+    public void testDomainTypes() {
+        List<Object> values = Arrays.asList(
+                1L, 2L, null,
+                new BigDecimal("10.25"), new BigDecimal("20.5"), 3,
+                LocalDate.of(2024, 1, 31), null, LocalDate.of(2024, 2, 1),
+                LocalDateTime.of(2024, 1, 31, 12, 30), LocalDateTime.of(2024, 2, 1, 8, 0), "text"
+        );
+
+        cellsWritingService.writeTopToBottom(sheet, new StartPoint(0, 0), new TableData<>(values, 3, 4));
+
+        assertEquals(1, sheet.getRow(0).getCell(0).getNumericCellValue());
+        assertEquals(CellType.BLANK, sheet.getRow(2).getCell(0).getCellType());
+        assertEquals(10.25, sheet.getRow(0).getCell(1).getNumericCellValue());
+        assertEquals(3, sheet.getRow(2).getCell(1).getNumericCellValue());
+
+        XSSFCell date = sheet.getRow(0).getCell(2);
+        assertTrue(DateUtil.isCellDateFormatted(date));
+        assertEquals(LocalDate.of(2024, 1, 31), date.getLocalDateTimeCellValue().toLocalDate());
+        assertEquals(CellType.BLANK, sheet.getRow(1).getCell(2).getCellType());
+
+        XSSFCell dateTime = sheet.getRow(1).getCell(3);
+        assertTrue(DateUtil.isCellDateFormatted(dateTime));
+        assertEquals(LocalDateTime.of(2024, 2, 1, 8, 0), dateTime.getLocalDateTimeCellValue());
+        // A mixed column falls back to the generic writer
+        assertEquals("text", sheet.getRow(2).getCell(3).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Dates should share one style per format instead of one style per cell")
+    public void testDateStyleIsShared() {
+        int stylesBefore = workbook.getNumCellStyles();
+        List<LocalDate> dates = IntStream.range(0, 500)
+                .mapToObj(i -> LocalDate.of(2024, 1, 1).plusDays(i))
+                .toList();
+
+        cellsWritingService.writeTopToBottom(sheet, new StartPoint(0, 0), new TableData<>(dates, 100, 5));
+        cellsWritingService.writeTopToBottom(sheet, new StartPoint(200, 0), new TableData<>(dates, 100, 5));
+
+        assertEquals(stylesBefore + 1, workbook.getNumCellStyles());
+    }
+
+    @Test
+    @DisplayName("A date written to a styled template cell should keep the template formatting")
+    public void testDateKeepsTemplateStyle() {
+        CellStyle templateStyle = workbook.createCellStyle();
+        templateStyle.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+        templateStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        XSSFCell cell = sheet.createRow(0).createCell(0);
+        cell.setCellStyle(templateStyle);
+
+        new CellWriters(StringStrategy.SHARED, new XlsxStyleService())
+                .forType(LocalDate.class)
+                .write(cell, LocalDate.of(2024, 3, 1));
+
+        assertTrue(DateUtil.isCellDateFormatted(cell));
+        assertEquals(IndexedColors.YELLOW.getIndex(), cell.getCellStyle().getFillForegroundColor());
+    }
+
+    @Test
+    @DisplayName("The style derived from a template style should be resolved once per writer")
+    public void testDerivedDateStyleIsCached() {
+        CellStyle templateStyle = workbook.createCellStyle();
+        templateStyle.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+        templateStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        AtomicInteger lookups = new AtomicInteger();
+        XlsxStyleService styleService = new XlsxStyleService() {
+            @Override
+            public CellStyle style(Workbook workbook, StyleDescriptor descriptor) {
+                lookups.incrementAndGet();
+                return super.style(workbook, descriptor);
+            }
+        };
+        CellWriter writer = new CellWriters(StringStrategy.SHARED, styleService).forType(LocalDate.class);
+
+        for (int row = 0; row < 100; row++) {
+            XSSFCell cell = sheet.createRow(row).createCell(0);
+            cell.setCellStyle(templateStyle);
+            writer.write(cell, LocalDate.of(2024, 3, 1).plusDays(row));
+        }
+
+        assertEquals(1, lookups.get());
+        assertEquals(sheet.getRow(0).getCell(0).getCellStyle().getIndex(),
+                sheet.getRow(99).getCell(0).getCellStyle().getIndex());
+        assertEquals(IndexedColors.YELLOW.getIndex(), sheet.getRow(99).getCell(0).getCellStyle().getFillForegroundColor());
+    }
+
+    @Test
+    @DisplayName("Date styles created up front should be used by the later writes")
+    public void testCreateDateStyles() {
+        CellWriters cellWriters = new CellWriters(StringStrategy.SHARED, new XlsxStyleService());
+        cellWriters.createDateStyles(workbook);
+        int stylesBefore = workbook.getNumCellStyles();
+
+        XSSFCell cell = sheet.createRow(0).createCell(0);
+        cellWriters.forType(LocalDate.class).write(cell, LocalDate.of(2024, 3, 1));
+
+        assertTrue(DateUtil.isCellDateFormatted(cell));
+        assertEquals(stylesBefore, workbook.getNumCellStyles());
+    }
+
+    @Test
+    @DisplayName("Only the date styles of the given value types should be created up front")
+    public void testCreateDateStylesOfTypes() {
+        XlsxStyleService styleService = new XlsxStyleService();
+        CellWriters cellWriters = new CellWriters(StringStrategy.SHARED, styleService);
+
+        cellWriters.createDateStyles(workbook, List.of(String.class, Double.class));
+        assertEquals(0, styleService.registeredWorkbooks());
+
+        cellWriters.createDateStyles(workbook, List.of(String.class, LocalDate.class));
+        assertEquals(1, styleService.internedStyles(workbook));
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.CellSearch;
+import org.jspring.xls.domain.ColumnData;
+import org.jspring.xls.domain.ColumnData.DictionaryColumn;
+import org.jspring.xls.domain.ColumnarTableData;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxTableService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnDataTest {
+    private static final String SHEET_NAME = "Columns";
+    private XSSFWorkbook workbook;
+    private XSSFSheet sheet;
+
+    @BeforeEach
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        sheet = workbook.createSheet(SHEET_NAME);
+    }
+
+    @Test
+    @DisplayName("Dictionary encoding should number the distinct texts in order of first appearance")
+    public void testDictionaryEncoding() {
+        DictionaryColumn column = DictionaryColumn.encode(
+                List.of("open", "closed", "open", "open", "pending", "open", "closed", "open")
+        );
+
+        assertArrayEquals(new String[]{"open", "closed", "pending"}, column.dictionary());
+        assertArrayEquals(new int[]{0, 1, 0, 0, 2, 0, 1, 0}, column.codes());
+        assertEquals(StringStrategy.SHARED, column.resolve(StringStrategy.ADAPTIVE));
+    }
+
+    @Test
+    @DisplayName("Null texts of a dictionary column should be written as blank cells")
+    public void testDictionaryNulls() {
+        DictionaryColumn column = DictionaryColumn.encode(Arrays.asList("open", null, "open", null));
+
+        assertArrayEquals(new String[]{"open"}, column.dictionary());
+        assertArrayEquals(new int[]{0, DictionaryColumn.BLANK, 0, DictionaryColumn.BLANK}, column.codes());
+
+        new XlsxCellsWritingService().writeColumns(sheet, new StartPoint(0, 0), new ColumnarTableData(List.of(column)));
+
+        assertEquals("open", sheet.getRow(2).getCell(0).getStringCellValue());
+        assertEquals(CellType.BLANK, sheet.getRow(1).getCell(0).getCellType());
+        assertEquals(CellType.BLANK, sheet.getRow(3).getCell(0).getCellType());
+    }
+
+    @Test
+    @DisplayName("Primitive columns should be written side by side from top to bottom")
+    public void testWriteColumns() {
+        new XlsxCellsWritingService().writeColumns(
+                sheet,
+                new StartPoint(2, 1),
+                new ColumnarTableData(List.of(
+                        ColumnData.of(1.5, 2.5, 3.5),
+                        ColumnData.of(10L, 20L),
+                        ColumnData.of(7, 8, 9),
+                        ColumnData.of(true, false, true),
+                        DictionaryColumn.encode(List.of("a", "b", "a"))
+                ))
+        );
+
+        Row last = sheet.getRow(4);
+        assertEquals(3.5, last.getCell(1).getNumericCellValue());
+        assertNull(last.getCell(2), "The shorter column should leave its cell empty");
+        assertEquals(9, last.getCell(3).getNumericCellValue());
+        assertTrue(last.getCell(4).getBooleanCellValue());
+        assertEquals("a", last.getCell(5).getStringCellValue());
+        assertEquals(20, sheet.getRow(3).getCell(2).getNumericCellValue());
+    }
+
+    @Test
+    @DisplayName("Rows beyond the maximum number of rows should not be written")
+    public void testWriteColumnsMaxRows() {
+        new XlsxCellsWritingService().writeColumns(
+                sheet,
+                new StartPoint(0, 0),
+                new ColumnarTableData(List.of(ColumnData.of(1, 2, 3, 4)), 2)
+        );
+
+        assertEquals(1, sheet.getLastRowNum());
+    }
+
+    @Test
+    @DisplayName("A primitive column should fill the worksheet from left to right")
+    public void testPopulateWorksheetWithColumn() {
+        new XlsxTableService().populateWorksheetWithData(
+                new CellSearch<>(new SheetInfo(workbook, SHEET_NAME), new CellCoordinates<>(1, 0, null, null)),
+                3,
+                ColumnData.of(1, 2, 3, 4, 5)
+        );
+
+        assertEquals(3, sheet.getRow(1).getCell(2).getNumericCellValue());
+        assertEquals(5, sheet.getRow(2).getCell(1).getNumericCellValue());
+        assertEquals(2, sheet.getRow(2).getPhysicalNumberOfCells());
+    }
+
+    @Test
+    @DisplayName("A primitive column should not be laid out in rows without cells")
+    public void testPopulateWorksheetWithColumnWithoutCellsPerRow() {
+        CellSearch<Object> cellSearch =
+                new CellSearch<>(new SheetInfo(workbook, SHEET_NAME), new CellCoordinates<>(1, 0, null, null));
+        XlsxTableService service = new XlsxTableService();
+
+        for (int cellsPerRow : new int[]{0, -2}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.populateWorksheetWithData(cellSearch, cellsPerRow, ColumnData.of(1, 2, 3)));
+        }
+        assertEquals(-1, sheet.getLastRowNum());
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.annotation.XlsColumn;
+import org.jspring.xls.reactive.ReactiveXlsxWritingService;
+import org.jspring.xls.service.XlsxStyleService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveXlsxWritingServiceTest {
+
+    private final XlsxStyleService styleService = new XlsxStyleService();
+    private final ReactiveXlsxWritingService service =
+            new ReactiveXlsxWritingService(100, 8 * 1024, styleService);
+
+    public record Order(
+            @XlsColumn(header = "Reference", order = 0) String reference,
+            @XlsColumn(order = 1) double amount,
+            @XlsColumn(order = 2) LocalDate shipped
+    ) {
+    }
+
+    @Test
+    @DisplayName("Test writing a publisher of records to a flux of buffers")
+    void testWriteRecords() throws IOException {
+        Flux<Order> orders = Flux.range(0, 1_000)
+                .map(i -> new Order("REF-" + i, i * 1.5, LocalDate.of(2024, 1, 1).plusDays(i)));
+
+        try (XSSFWorkbook workbook = read(service.write(orders, Order.class, "Orders"))) {
+            Sheet sheet = workbook.getSheet("Orders");
+            assertEquals(1_000, sheet.getLastRowNum());
+            assertEquals("Reference", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("amount", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals("REF-999", sheet.getRow(1_000).getCell(0).getStringCellValue());
+            assertEquals(999 * 1.5, sheet.getRow(1_000).getCell(1).getNumericCellValue());
+            assertEquals(LocalDate.of(2024, 1, 1).plusDays(999).atStartOfDay(),
+                    sheet.getRow(1_000).getCell(2).getLocalDateTimeCellValue());
+            assertTrue(DateUtil.isCellDateFormatted(sheet.getRow(1_000).getCell(2)));
+        }
+        assertEquals(0, styleService.registeredWorkbooks(), "The styles should be released with the workbook");
+    }
+
+    @Test
+    @DisplayName("Test writing a publisher of value lists without header")
+    void testWriteRows() throws IOException {
+        Flux<List<?>> rows = Flux.just(List.of("a", 1), List.of("b", 2));
+
+        try (XSSFWorkbook workbook = read(service.writeRows(rows, "Rows"))) {
+            Sheet sheet = workbook.getSheet("Rows");
+            assertEquals(1, sheet.getLastRowNum());
+            assertEquals("a", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(2, sheet.getRow(1).getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Test the first buffer is emitted before the source completes")
+    void testFirstBufferBeforeSourceCompletes() {
+        AtomicInteger produced = new AtomicInteger();
+        Flux<List<?>> rows = Flux.range(0, Integer.MAX_VALUE)
+                .map(i -> {
+                    produced.incrementAndGet();
+                    return List.of("row " + i, i);
+                });
+
+        DataBuffer first = service.writeRows(rows, "Rows").blockFirst();
+
+        assertNotNull(first);
+        DataBufferUtils.release(first);
+        assertTrue(produced.get() < Integer.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Test an error of the source fails the output")
+    void testSourceError() {
+        Flux<List<?>> rows = Flux.concat(Flux.just(List.of("a")), Flux.error(new IllegalStateException("boom")));
+
+        assertThrows(RuntimeException.class, () -> DataBufferUtils.join(service.writeRows(rows, "Rows")).block());
+    }
+
+    private static XSSFWorkbook read(Flux<DataBuffer> buffers) throws IOException {
+        DataBuffer joined = DataBufferUtils.join(buffers).block();
+        assertNotNull(joined);
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return new XSSFWorkbook(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,64 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.StringStrategies;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StringStrategyTest {
+    private static final String SHEET_NAME = "Strings";
+
+    @Test
+    @DisplayName("The adaptive strategy should store unique texts inline and repetitive texts in the shared table")
+    public void testAdaptiveResolution() {
+        List<String> unique = IntStream.range(0, 100).mapToObj(i -> "id-" + i).toList();
+        List<String> repetitive = IntStream.range(0, 100).mapToObj(i -> "status-" + i % 3).toList();
+
+        assertEquals(StringStrategy.INLINE, StringStrategy.ADAPTIVE.resolve(unique));
+        assertEquals(StringStrategy.SHARED, StringStrategy.ADAPTIVE.resolve(repetitive));
+        assertEquals(StringStrategy.SHARED, StringStrategy.SHARED.resolve(unique));
+    }
+
+    @Test
+    @DisplayName("Inline columns should not grow the shared strings table and read back as strings")
+    public void testInlineColumnsRoundTrip() {
+        // Two columns of three rows: unique identifiers, then repeated statuses
+        List<String> values = new ArrayList<>(List.of("id-1", "id-2", "id-3", "open", "open", "closed"));
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+
+        new XlsxCellsWritingService().writeTopToBottom(
+                sheet,
+                new StartPoint(0, 0),
+                new TableData<>(values, 3, 2),
+                new StringStrategies(StringStrategy.SHARED, Map.of(0, StringStrategy.INLINE))
+        );
+
+        assertEquals(STCellType.INLINE_STR, sheet.getRow(0).getCell(0).getCTCell().getT());
+        assertEquals(2, workbook.getSharedStringSource().getUniqueCount());
+
+        XSSFWorkbook read = new XlsxReadingService("").readFromByteArray(
+                new XlsxWritingService().writeAsByteArray(workbook)
+        );
+        XSSFCell inline = read.getSheet(SHEET_NAME).getRow(2).getCell(0);
+        assertEquals("id-3", inline.getStringCellValue());
+        assertEquals("closed", read.getSheet(SHEET_NAME).getRow(2).getCell(1).getStringCellValue());
+    }
+
+}
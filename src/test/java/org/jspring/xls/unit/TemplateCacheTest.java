@@ -0,0 +1,95 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.cache.TemplateCache;
+import org.jspring.xls.cache.TemplateCacheStats;
+import org.jspring.xls.service.XlsxReadingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateCacheTest {
+
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    private static final String SHEET_NAME = "One";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test the second read of a template is a cache hit")
+    void testCacheHit() throws IOException {
+        TemplateCache cache = new TemplateCache();
+
+        byte[] first = cache.get(TEMPLATE_PATH);
+        byte[] second = cache.get(TEMPLATE_PATH);
+
+        assertSame(first, second);
+        TemplateCacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    @DisplayName("Test a modified template is read again")
+    void testModifiedTemplateIsReloaded() throws IOException {
+        Path template = tempDir.resolve("template.xlsx");
+        Files.write(template, new byte[]{1, 2, 3});
+        TemplateCache cache = new TemplateCache();
+        cache.get(template.toString());
+
+        Files.write(template, new byte[]{4, 5, 6, 7});
+        Files.setLastModifiedTime(template, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, cache.get(template.toString()));
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Test the least recently used template is evicted")
+    void testLeastRecentlyUsedEviction() throws IOException {
+        Path first = Files.write(tempDir.resolve("first.xlsx"), new byte[]{1});
+        Path second = Files.write(tempDir.resolve("second.xlsx"), new byte[]{2});
+        Path third = Files.write(tempDir.resolve("third.xlsx"), new byte[]{3});
+        TemplateCache cache = new TemplateCache(2);
+
+        cache.get(first.toString());
+        cache.get(second.toString());
+        cache.get(first.toString());
+        cache.get(third.toString());
+        cache.get(first.toString());
+
+        TemplateCacheStats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(2, stats.hits());
+
+        cache.get(second.toString());
+        assertEquals(4, cache.stats().misses());
+    }
+
+    @Test
+    @DisplayName("Test the reading service returns independent workbooks from the cache")
+    void testReadingServiceWithCache() throws IOException {
+        TemplateCache cache = new TemplateCache();
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH, cache);
+
+        XSSFWorkbook first = service.readFromTemplate();
+        first.getSheet(SHEET_NAME).getRow(0).getCell(0).setCellValue("changed");
+        XSSFWorkbook second = service.readFromTemplate(TEMPLATE_PATH);
+
+        assertNotSame(first, second);
+        assertEquals("Item one:", second.getSheet(SHEET_NAME).getRow(0).getCell(0).getStringCellValue());
+        assertEquals(1, cache.stats().hits());
+    }
+}
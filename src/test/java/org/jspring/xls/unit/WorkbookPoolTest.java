@@ -0,0 +1,117 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.cache.WorkbookPool;
+import org.jspring.xls.cache.WorkbookPoolStats;
+import org.jspring.xls.service.XlsxReadingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkbookPoolTest {
+
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    private static final String SHEET_NAME = "One";
+
+    private final XlsxReadingService loader = new XlsxReadingService(TEMPLATE_PATH);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test a prewarmed pool serves checkouts and refills itself")
+    void testPrewarmedCheckout() throws InterruptedException {
+        try (WorkbookPool pool = new WorkbookPool(loader::readFromTemplate, 2, 4)) {
+            pool.prewarm(TEMPLATE_PATH);
+            awaitPooled(pool, 2);
+
+            XSSFWorkbook first = pool.checkout(TEMPLATE_PATH);
+            XSSFWorkbook second = pool.checkout(TEMPLATE_PATH);
+
+            assertNotSame(first, second);
+            assertNotNull(first.getSheet(SHEET_NAME));
+            assertEquals(2, pool.stats().hits());
+            assertEquals(0, pool.stats().misses());
+            awaitPooled(pool, 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Test an empty pool parses the template on the calling thread")
+    void testMissParsesOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        AtomicInteger loadsOnCaller = new AtomicInteger();
+        Function<String, XSSFWorkbook> countingLoader = path -> {
+            if (Thread.currentThread() == caller) {
+                loadsOnCaller.incrementAndGet();
+            }
+            return loader.readFromTemplate(path);
+        };
+
+        try (WorkbookPool pool = new WorkbookPool(countingLoader, 1, 4)) {
+            assertNotNull(pool.checkout(TEMPLATE_PATH));
+
+            WorkbookPoolStats stats = pool.stats();
+            assertEquals(1, stats.misses());
+            assertEquals(1, loadsOnCaller.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Test the workbooks of a modified template are not served")
+    void testModifiedTemplateIsReloaded() throws IOException, InterruptedException {
+        Path template = tempDir.resolve("template.xlsx");
+        Files.copy(Path.of(TEMPLATE_PATH), template);
+        try (WorkbookPool pool = new WorkbookPool(loader::readFromTemplate, 1, 4)) {
+            pool.prewarm(template.toString());
+            awaitPooled(pool, 1);
+
+            try (XSSFWorkbook modified = loader.readFromTemplate(TEMPLATE_PATH)) {
+                modified.createSheet("Added");
+                try (var out = Files.newOutputStream(template)) {
+                    modified.write(out);
+                }
+            }
+            Files.setLastModifiedTime(template, FileTime.from(Instant.now().plusSeconds(60)));
+
+            XSSFWorkbook workbook = pool.checkout(template.toString());
+
+            assertNotNull(workbook.getSheet("Added"));
+            assertEquals(1, pool.stats().misses());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a failing refill is counted and the checkout reports the error")
+    void testRefillFailure() throws InterruptedException {
+        try (WorkbookPool pool = new WorkbookPool(path -> {
+            throw new IllegalStateException("unreadable");
+        }, 1, 4)) {
+            pool.prewarm(TEMPLATE_PATH);
+            for (int i = 0; i < 100 && pool.stats().refillFailures() == 0; i++) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(1, pool.stats().refillFailures());
+            assertThrows(IllegalStateException.class, () -> pool.checkout(TEMPLATE_PATH));
+        }
+    }
+
+    private static void awaitPooled(WorkbookPool pool, int expected) throws InterruptedException {
+        for (int i = 0; i < 250 && pool.stats().pooled() < expected; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, pool.stats().pooled());
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.jspring.xls.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.domain.StartPoint;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.metrics.InstrumentedXlsxCellsWritingService;
+import org.jspring.xls.metrics.InstrumentedXlsxReadingService;
+import org.jspring.xls.metrics.InstrumentedXlsxSearchingService;
+import org.jspring.xls.metrics.InstrumentedXlsxWritingService;
+import org.jspring.xls.metrics.XlsMetrics;
+import org.jspring.xls.service.XlsxStyleService;
+import org.jspring.xls.utils.BufferPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class XlsMetricsTest {
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    private static final String SHEET_NAME = "One";
+
+    private MeterRegistry registry;
+    private XlsMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new XlsMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Template loads should be timed and tagged with the template file name")
+    public void testTemplateLoadMetrics() {
+        new InstrumentedXlsxReadingService(TEMPLATE_PATH, null, metrics).readFromTemplate();
+
+        assertEquals(1, registry.get(XlsMetrics.TEMPLATE_LOAD)
+                .tags("template", "Blank.xls", "outcome", "success")
+                .timer()
+                .count());
+    }
+
+    @Test
+    @DisplayName("Searches and cell writes should be timed and the written cells counted")
+    public void testSearchAndWriteMetrics() {
+        SheetInfo sheetInfo = new SheetInfo(
+                new InstrumentedXlsxReadingService(TEMPLATE_PATH, null, metrics).readFromTemplate(),
+                SHEET_NAME
+        );
+
+        new InstrumentedXlsxSearchingService(false, metrics).searchCellBySheetAndCoordinates(
+                sheetInfo,
+                CellCoordinates.SearchBuilder.init().cellValue("TARGET").build()
+        );
+        new InstrumentedXlsxCellsWritingService(StringStrategy.SHARED, new XlsxStyleService(), metrics).writeTopToBottom(
+                sheetInfo,
+                new StartPoint(25, 0),
+                new TableData<>(List.of("a", "b", "c", "d", "e"), 2, 2)
+        );
+
+        assertEquals(1, registry.get(XlsMetrics.SEARCH).tags("sheet", SHEET_NAME, "by", "value").timer().count());
+        assertEquals(1, registry.get(XlsMetrics.CELLS_WRITE).tags("sheet", SHEET_NAME).timer().count());
+        assertEquals(4, registry.get(XlsMetrics.CELLS_WRITTEN).summary().totalAmount());
+        assertEquals(2, registry.get(XlsMetrics.ROWS_WRITTEN).summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("The bytes produced by the serialization should be measured")
+    public void testSerializeMetrics() {
+        InstrumentedXlsxWritingService writingService = new InstrumentedXlsxWritingService(
+                WriteMode.IN_MEMORY, 100, false, new BufferPool(), metrics
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writingService.writeTo(new XSSFWorkbook(), out);
+
+        assertEquals(1, registry.get(XlsMetrics.SERIALIZE).tags("target", "stream").timer().count());
+        assertEquals(out.size(), registry.get(XlsMetrics.BYTES_WRITTEN).summary().totalAmount());
+    }
+
+}
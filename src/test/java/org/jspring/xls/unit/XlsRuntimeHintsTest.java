@@ -0,0 +1,57 @@
+package org.jspring.xls.unit;
+
+import org.jspring.xls.config.XlsRuntimeHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.impl.CTSstImpl;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.impl.CTStylesheetImpl;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.impl.CTWorkbookImpl;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void registerHints() {
+        new XlsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Test the compiled schemas are registered as resources")
+    void testSchemaResources() {
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("org/apache/poi/schemas/ooxml/system/ooxml/index.xsb").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("org/apache/xmlbeans/metadata/system/sXMLSCHEMA/index.xsb").test(hints));
+    }
+
+    @Test
+    @DisplayName("Test the type systems and the spreadsheet XML types are registered for reflection")
+    void testSchemaTypes() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.apache.poi.schemas.ooxml.system.ooxml.TypeSystemHolder"))
+                .withMemberCategory(MemberCategory.PUBLIC_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CTWorksheet.class).test(hints));
+        for (Class<?> implementation : new Class<?>[]{CTWorkbookImpl.class, CTSstImpl.class, CTStylesheetImpl.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(implementation)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        }
+    }
+
+    @Test
+    @DisplayName("Test the schemas of other document types are not registered")
+    void testOtherSchemasNotRegistered() {
+        assertFalse(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1"))
+                .test(hints));
+    }
+
+}
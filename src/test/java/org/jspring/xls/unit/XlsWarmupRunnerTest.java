@@ -0,0 +1,71 @@
+package org.jspring.xls.unit;
+
+import org.jspring.xls.enums.StringStrategy;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxStyleService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.warmup.XlsWarmupRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsWarmupRunnerTest {
+
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+
+    @Test
+    @DisplayName("Test the warm-up runs every cycle and completes")
+    void testWarmUp() {
+        XlsWarmupRunner runner = runner(List.of(TEMPLATE_PATH));
+
+        assertFalse(runner.completed());
+        runner.run(new DefaultApplicationArguments());
+
+        assertTrue(runner.completed());
+    }
+
+    @Test
+    @DisplayName("Test the warm-up releases the styles of its workbooks")
+    void testWarmUpReleasesStyles() {
+        XlsxStyleService styleService = new XlsxStyleService();
+        XlsWarmupRunner runner = new XlsWarmupRunner(
+                List.of(TEMPLATE_PATH),
+                2,
+                new XlsxReadingService(TEMPLATE_PATH),
+                new XlsxSearchingService(true),
+                new XlsxCellsWritingService(StringStrategy.SHARED, styleService),
+                new XlsxWritingService()
+        );
+
+        runner.warmUp();
+
+        assertEquals(0, styleService.registeredWorkbooks());
+    }
+
+    @Test
+    @DisplayName("Test a missing template fails the warm-up")
+    void testMissingTemplate() {
+        XlsWarmupRunner runner = runner(List.of("src/main/resources/template/Missing.xlsx"));
+
+        assertThrows(RuntimeException.class, () -> runner.run(new DefaultApplicationArguments()));
+        assertFalse(runner.completed());
+    }
+
+    private static XlsWarmupRunner runner(List<String> templates) {
+        return new XlsWarmupRunner(
+                templates,
+                2,
+                new XlsxReadingService(TEMPLATE_PATH),
+                new XlsxSearchingService(true),
+                new XlsxCellsWritingService(),
+                new XlsxWritingService()
+        );
+    }
+
+}
@@ -1,13 +1,25 @@
 package org.jspring.xls.unit;
 
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.annotation.XlsColumn;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.CellSearch;
+import org.jspring.xls.domain.RowView;
+import org.jspring.xls.domain.SheetInfo;
 import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxTableService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,4 +73,231 @@ class XlsxReadingServiceTest {
         assertNotNull(book);
         assertEquals(SHEET_NAME, book.getSheetAt(0).getSheetName());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test Streaming the rows of a sheet")
+    void testStreamRows() {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+
+        List<RowView> rows;
+        try (Stream<RowView> stream = service.streamRows(TEMPLATE_PATH, SHEET_NAME)) {
+            rows = stream.toList();
+        }
+
+        RowView targetRow = rows.stream().filter(row -> row.rowNumber() == 6).findFirst().orElseThrow();
+        assertEquals(CellType.STRING, targetRow.cell(4).cellType());
+        assertEquals("TARGET", targetRow.cell(4).value());
+        assertEquals(202304.0, targetRow.cell(0).value());
+        assertNull(targetRow.cell(3));
+        assertEquals(19, rows.get(rows.size() - 1).rowNumber());
+    }
+
+    @Test
+    @DisplayName("Test Streaming stops at the first row when short-circuited")
+    void testStreamRowsFirstRow() {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+
+        try (Stream<RowView> stream = service.streamRows(TEMPLATE_PATH, SHEET_NAME)) {
+            RowView first = stream.findFirst().orElseThrow();
+            assertEquals(0, first.rowNumber());
+            assertEquals("Item one:", first.cell(0).value());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Streaming a missing sheet")
+    void testStreamRowsMissingSheet() {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+
+        assertThrows(IllegalArgumentException.class, () -> service.streamRows(TEMPLATE_PATH, "Missing"));
+    }
+
+    @Test
+    @DisplayName("Test Opening a workbook in read-only mode")
+    void testOpenReadOnly() throws IOException {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+
+        try (XSSFWorkbook book = service.openReadOnly(TEMPLATE_PATH)) {
+            assertEquals("TARGET", book.getSheet(SHEET_NAME).getRow(6).getCell(4).getStringCellValue());
+            assertThrows(RuntimeException.class, () -> book.write(new ByteArrayOutputStream()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Binding the rows of a sheet to records, in memory and streaming")
+    void testReadAndStreamRecords() throws IOException {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+        List<Item> items = List.of(
+                new Item("A-1", 3, new BigDecimal("12.5"), LocalDate.of(2024, 1, 31), true),
+                new Item("42", 0, null, null, false)
+        );
+        File file = File.createTempFile("records", ".xlsx");
+        try (XSSFWorkbook book = new XSSFWorkbook()) {
+            book.createSheet(SHEET_NAME);
+            // Columns in another order than the properties, matched by header
+            new XlsxTableService().populateWorksheetWithBeans(
+                    new CellSearch<>(new SheetInfo(book, SHEET_NAME), new CellCoordinates<>(0, 0, null, null)),
+                    Item.class, items
+            );
+            book.getSheet(SHEET_NAME).createRow(5).createCell(0).setBlank();
+            try (var out = Files.newOutputStream(file.toPath())) {
+                book.write(out);
+            }
+
+            assertEquals(items, service.readRecords(book.getSheet(SHEET_NAME), Item.class, true));
+            try (Stream<Item> stream = service.streamRecords(file.getPath(), SHEET_NAME, Item.class, true)) {
+                assertEquals(items, stream.toList());
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Binding rows by column index to a bean")
+    void testReadRecordsByIndex() {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+        try (XSSFWorkbook book = new XSSFWorkbook()) {
+            var row = book.createSheet(SHEET_NAME).createRow(3);
+            row.createCell(0).setCellValue("Ada");
+            row.createCell(1).setCellValue("7");
+
+            List<Person> people = service.readRecords(book.getSheet(SHEET_NAME), Person.class, false);
+
+            assertEquals(1, people.size());
+            assertEquals("Ada", people.get(0).name);
+            assertEquals(7L, people.get(0).getAge());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Test Binding rows by column index to beans in the column order of their export")
+    void testReadExportedBeansByIndex() throws IOException {
+        XlsxReadingService service = new XlsxReadingService(TEMPLATE_PATH);
+        Child child = new Child();
+        child.setId(7);
+        child.amount = 2.5;
+        Labeled labeled = new Labeled();
+        labeled.name = "Ada";
+        labeled.qty = 3;
+        Computed computed = new Computed();
+        computed.a = "x";
+        computed.n = 4;
+
+        assertEquals(List.of(child), readBack(service, Child.class, child));
+        assertEquals(List.of(labeled), readBack(service, Labeled.class, labeled));
+        assertEquals(List.of(computed), readBack(service, Computed.class, computed));
+    }
+
+    private static <T> List<T> readBack(XlsxReadingService service, Class<T> type, T bean) throws IOException {
+        try (XSSFWorkbook book = new XSSFWorkbook()) {
+            book.createSheet(SHEET_NAME);
+            new XlsxTableService().populateWorksheetWithBeans(
+                    new CellSearch<>(new SheetInfo(book, SHEET_NAME), new CellCoordinates<>(0, 0, null, null)),
+                    type, List.of(bean), false
+            );
+            return service.readRecords(book.getSheet(SHEET_NAME), type, false);
+        }
+    }
+
+    public record Item(
+            @XlsColumn(header = "Code", order = 0) String code,
+            @XlsColumn(order = 3) int quantity,
+            @XlsColumn(order = 2) BigDecimal price,
+            @XlsColumn(order = 1) LocalDate shipped,
+            @XlsColumn(order = 4) boolean active
+    ) {
+    }
+
+    public static class Person {
+        @XlsColumn(order = 0)
+        private String name;
+        private long age;
+
+        public Person() {
+        }
+
+        @XlsColumn(order = 1)
+        public long getAge() {
+            return age;
+        }
+
+        public void setAge(long age) {
+            this.age = age;
+        }
+    }
+
+    public static class Base {
+        @XlsColumn(order = 0)
+        private long id;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Child extends Base {
+        @XlsColumn(order = 1)
+        double amount;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Child other && other.getId() == getId() && other.amount == amount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(getId());
+        }
+    }
+
+    public static class Labeled {
+        @XlsColumn(order = 0)
+        String name;
+        @XlsColumn(order = 1)
+        int qty;
+
+        @XlsColumn(order = 0)
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Labeled other && other.name.equals(name) && other.qty == qty;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    public static class Computed {
+        @XlsColumn(order = 0)
+        String a;
+        @XlsColumn(order = 2)
+        int n;
+
+        @XlsColumn(order = 1)
+        public String getUpper() {
+            return a.toUpperCase();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Computed other && other.a.equals(a) && other.n == n;
+        }
+
+        @Override
+        public int hashCode() {
+            return a.hashCode();
+        }
+    }
+}
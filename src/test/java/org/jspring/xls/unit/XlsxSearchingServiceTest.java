@@ -0,0 +1,185 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.CellCoordinates;
+import org.jspring.xls.domain.SheetInfo;
+import org.jspring.xls.service.XlsxSearchingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XlsxSearchingServiceTest {
+    private static final String SHEETNAME = "Search";
+    private SheetInfo sheetInfo;
+
+    @BeforeEach
+    public void setUp() {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        XSSFSheet sheet = workbook.createSheet(SHEETNAME);
+        Row first = sheet.createRow(0);
+        first.createCell(0).setCellValue("Name");
+        first.createCell(1).setCellValue(12.5);
+        Row second = sheet.createRow(3);
+        second.createCell(0).setCellValue(true);
+        second.createCell(2).setCellValue("NAME");
+        second.createCell(3).setCellValue(7);
+        sheetInfo = new SheetInfo(workbook, SHEETNAME);
+    }
+
+    @Test
+    @DisplayName("Indexed and scanning searches should find the same first cell")
+    public void testIndexedSearchMatchesScan() {
+        XlsxSearchingService scanning = new XlsxSearchingService();
+        XlsxSearchingService indexed = new XlsxSearchingService(true);
+
+        for (Object value : new Object[]{"name", 12.5, 7, true, "missing", 8}) {
+            CellCoordinates<Object> coordinates = CellCoordinates.SearchBuilder.init().cellValue(value).build();
+            assertEquals(
+                    scanning.searchCellBySheetAndCoordinates(sheetInfo, coordinates),
+                    indexed.searchCellBySheetAndCoordinates(sheetInfo, coordinates),
+                    "Different result for " + value
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("The index should apply the filter of the coordinates")
+    public void testIndexedSearchWithFilter() {
+        XlsxSearchingService indexed = new XlsxSearchingService(true);
+
+        Optional<Cell> cell = indexed.searchCellBySheetAndCoordinates(
+                sheetInfo,
+                new CellCoordinates<>(-1, -1, "name", c -> c.getColumnIndex() > 0)
+        );
+
+        assertTrue(cell.isPresent());
+        assertEquals(3, cell.get().getRowIndex());
+        assertEquals(2, cell.get().getColumnIndex());
+    }
+
+    @Test
+    @DisplayName("Cells written after an invalidation should be found by the index")
+    public void testInvalidateIndex() {
+        XlsxSearchingService indexed = new XlsxSearchingService(true);
+        CellCoordinates<String> coordinates = CellCoordinates.SearchBuilder.<String>init().cellValue("Added").build();
+
+        assertFalse(indexed.searchCellBySheetAndCoordinates(sheetInfo, coordinates).isPresent());
+
+        sheetInfo.getSheet().createRow(5).createCell(1).setCellValue("Added");
+        indexed.invalidateIndex(sheetInfo);
+
+        Optional<Cell> cell = indexed.searchCellBySheetAndCoordinates(sheetInfo, coordinates);
+        assertTrue(cell.isPresent());
+        assertEquals(5, cell.get().getRowIndex());
+    }
+
+    @Test
+    @DisplayName("The index of a sheet should not keep its workbook reachable")
+    public void testIndexedWorkbookIsCollected() throws InterruptedException {
+        XlsxSearchingService indexed = new XlsxSearchingService(true);
+        WeakReference<XSSFWorkbook> workbook = searchIndexedWorkbook(indexed);
+
+        for (int attempt = 0; attempt < 50 && workbook.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(workbook.get());
+    }
+
+    private static WeakReference<XSSFWorkbook> searchIndexedWorkbook(XlsxSearchingService indexed) {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        workbook.createSheet(SHEETNAME).createRow(0).createCell(0).setCellValue("Name");
+        SheetInfo info = new SheetInfo(workbook, SHEETNAME);
+
+        assertTrue(indexed.searchCellBySheetAndCoordinates(
+                info,
+                CellCoordinates.SearchBuilder.<String>init().cellValue("name").build()
+        ).isPresent());
+        return new WeakReference<>(workbook);
+    }
+
+    @Test
+    @DisplayName("A number should only match a numeric cell holding the same value")
+    public void testNumericValueMatch() {
+        XlsxSearchingService scanning = new XlsxSearchingService();
+
+        Optional<Cell> cell = scanning.searchCellBySheetAndCoordinates(
+                sheetInfo,
+                CellCoordinates.SearchBuilder.init().cellValue(7.0).build()
+        );
+
+        assertTrue(cell.isPresent());
+        assertEquals(3, cell.get().getColumnIndex());
+    }
+
+    @Test
+    @DisplayName("The parallel scan should return the first matching cell in row order")
+    public void testParallelSearch() {
+        XlsxSearchingService scanning = new XlsxSearchingService();
+        XSSFSheet sheet = sheetInfo.getSheet();
+        for (int i = 10; i < 2_000; i++) {
+            sheet.createRow(i).createCell(i % 5).setCellValue(i % 100);
+        }
+
+        for (Object value : new Object[]{"name", 42, 99.0, "missing"}) {
+            CellCoordinates<Object> coordinates = CellCoordinates.SearchBuilder.init().cellValue(value).build();
+            assertEquals(
+                    scanning.searchCellBySheetAndCoordinates(sheetInfo, coordinates),
+                    scanning.parallelSearchCellBySheetAndCoordinates(sheetInfo, coordinates),
+                    "Different result for " + value
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Coordinates should be resolved by logical index in sheets with missing rows")
+    public void testSearchByCoordinatesWithMissingRows() {
+        XlsxSearchingService scanning = new XlsxSearchingService();
+
+        Optional<Cell> cell = scanning.searchCellBySheetAndCoordinates(
+                sheetInfo,
+                CellCoordinates.SearchBuilder.init().address("D4").build()
+        );
+
+        assertTrue(cell.isPresent());
+        assertEquals(7, cell.get().getNumericCellValue());
+        assertFalse(scanning.searchCellBySheetAndCoordinates(
+                sheetInfo,
+                CellCoordinates.SearchBuilder.init().address("A2").build()
+        ).isPresent());
+    }
+
+    @Test
+    @DisplayName("Bulk resolution should return the cells in the order of the coordinates")
+    public void testSearchCellsBySheetAndCoordinates() {
+        XlsxSearchingService indexed = new XlsxSearchingService(true);
+
+        List<Optional<Cell>> cells = indexed.searchCellsBySheetAndCoordinates(
+                sheetInfo,
+                List.of(
+                        CellCoordinates.SearchBuilder.init().address("B1").build(),
+                        CellCoordinates.SearchBuilder.init().cellValue("name").build(),
+                        CellCoordinates.SearchBuilder.init().address("Z99").build()
+                )
+        );
+
+        assertEquals(3, cells.size());
+        assertEquals(12.5, cells.get(0).orElseThrow().getNumericCellValue());
+        assertEquals("Name", cells.get(1).orElseThrow().getStringCellValue());
+        assertFalse(cells.get(2).isPresent());
+    }
+
+}
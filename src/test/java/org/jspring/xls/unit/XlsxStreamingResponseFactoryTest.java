@@ -0,0 +1,98 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.builder.WorkbookOperation;
+import org.jspring.xls.domain.TableData;
+import org.jspring.xls.service.XlsOperationService;
+import org.jspring.xls.service.XlsxCellsWritingService;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxSearchingService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.web.WorkbookHttpMessageConverter;
+import org.jspring.xls.web.XlsxStreamingResponseFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxStreamingResponseFactoryTest {
+
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    private static final String SHEET_NAME = "One";
+
+    private final XlsxReadingService readingService = new XlsxReadingService(TEMPLATE_PATH);
+    private final XlsxWritingService writingService = new XlsxWritingService();
+    private final XlsOperationService operationService = new XlsOperationService(
+            readingService, writingService, new XlsxCellsWritingService(), new XlsxSearchingService()
+    );
+    private final XlsxStreamingResponseFactory responseFactory =
+            new XlsxStreamingResponseFactory(writingService, operationService);
+    private final WorkbookHttpMessageConverter converter =
+            new WorkbookHttpMessageConverter(writingService, operationService);
+
+    @Test
+    @DisplayName("Test an attachment response streams the workbook with the download headers")
+    void testAttachment() throws IOException {
+        XSSFWorkbook workbook = readingService.readFromTemplate();
+
+        ResponseEntity<StreamingResponseBody> response = responseFactory.attachment(workbook, "rapport été.xlsx");
+
+        HttpHeaders headers = response.getHeaders();
+        assertEquals(XlsxStreamingResponseFactory.XLSX, headers.getContentType());
+        assertEquals("rapport été.xlsx", headers.getContentDisposition().getFilename());
+        assertTrue(headers.getContentDisposition().isAttachment());
+        assertEquals("no-store", headers.getCacheControl());
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(out);
+        try (XSSFWorkbook written = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertNotNull(written.getSheet(SHEET_NAME));
+        }
+    }
+
+    @Test
+    @DisplayName("Test an operation body runs the operation when the response is written")
+    void testOperationBody() throws IOException {
+        WorkbookOperation operation = WorkbookOperation.builder(TEMPLATE_PATH)
+                .startAt(SHEET_NAME, 25, 0)
+                .data(new TableData<>(List.of("a", "b"), 2, 1))
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        responseFactory.body(operation).writeTo(out);
+
+        try (XSSFWorkbook written = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("b", written.getSheet(SHEET_NAME).getRow(26).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Test the converter writes workbooks and operations without content length")
+    void testConverter() throws IOException {
+        assertTrue(converter.canWrite(XSSFWorkbook.class, XlsxStreamingResponseFactory.XLSX));
+        assertTrue(converter.canWrite(WorkbookOperation.class, null));
+        assertFalse(converter.canRead(XSSFWorkbook.class, XlsxStreamingResponseFactory.XLSX));
+        assertFalse(converter.canWrite(String.class, null));
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(readingService.readFromTemplate(), null, message);
+
+        assertEquals(XlsxStreamingResponseFactory.XLSX, message.getHeaders().getContentType());
+        assertFalse(message.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+        try (XSSFWorkbook written = new XSSFWorkbook(new ByteArrayInputStream(message.getBodyAsBytes()))) {
+            assertNotNull(written.getSheet(SHEET_NAME));
+        }
+    }
+
+}
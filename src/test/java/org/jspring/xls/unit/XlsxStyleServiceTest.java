@@ -0,0 +1,143 @@
+package org.jspring.xls.unit;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.domain.StyleDescriptor;
+import org.jspring.xls.service.XlsxStyleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XlsxStyleServiceTest {
+    private static final StyleDescriptor MONEY = StyleDescriptor.builder()
+            .dataFormat("#,##0.00")
+            .bold(true)
+            .border(BorderStyle.THIN)
+            .build();
+
+    private XlsxStyleService styleService;
+    private XSSFWorkbook workbook;
+
+    @BeforeEach
+    public void setUp() {
+        styleService = new XlsxStyleService();
+        workbook = new XSSFWorkbook();
+        workbook.createSheet("Styles");
+    }
+
+    @Test
+    @DisplayName("Cells with equal descriptors should share a single style record")
+    public void testStylesAreInterned() {
+        int stylesBefore = workbook.getNumCellStyles();
+        int fontsBefore = workbook.getNumberOfFonts();
+        XSSFSheet sheet = workbook.getSheet("Styles");
+
+        for (int i = 0; i < 1_000; i++) {
+            Row row = sheet.createRow(i);
+            styleService.writeValue(row.createCell(0), (double) i, MONEY);
+            styleService.writeValue(row.createCell(1), "text", StyleDescriptor.builder().bold(true).build());
+        }
+
+        assertEquals(stylesBefore + 2, workbook.getNumCellStyles());
+        // Both styles use the same bold font
+        assertEquals(fontsBefore + 1, workbook.getNumberOfFonts());
+        assertEquals(
+                sheet.getRow(0).getCell(0).getCellStyle().getIndex(),
+                sheet.getRow(999).getCell(0).getCellStyle().getIndex()
+        );
+        assertEquals(2, styleService.internedStyles(workbook));
+    }
+
+    @Test
+    @DisplayName("A descriptor with a base style should keep the attributes it does not override")
+    public void testBaseStyleIsCloned() {
+        CellStyle base = workbook.createCellStyle();
+        base.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+        base.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        CellStyle style = styleService.style(
+                workbook,
+                StyleDescriptor.builder().baseStyle(base.getIndex()).dataFormat("0%").build()
+        );
+
+        assertNotSame(base, style);
+        assertEquals(IndexedColors.YELLOW.getIndex(), style.getFillForegroundColor());
+        assertEquals(FillPatternType.SOLID_FOREGROUND, style.getFillPattern());
+        assertEquals("0%", style.getDataFormatString());
+    }
+
+    @Test
+    @DisplayName("A streaming workbook should share the styles of the workbook it wraps")
+    public void testStreamingWorkbookSharesStyles() {
+        CellStyle style = styleService.style(workbook, MONEY);
+        SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(workbook);
+        try {
+            Cell cell = streamingWorkbook.getSheet("Styles").createRow(0).createCell(0);
+            styleService.applyStyle(cell, MONEY);
+
+            assertEquals(style.getIndex(), cell.getCellStyle().getIndex());
+        } finally {
+            streamingWorkbook.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Each workbook should get its own style records")
+    public void testStylesArePerWorkbook() {
+        XSSFWorkbook other = new XSSFWorkbook();
+
+        CellStyle style = styleService.style(workbook, MONEY);
+        CellStyle otherStyle = styleService.style(other, MONEY);
+
+        assertNotSame(style, otherStyle);
+        assertTrue(otherStyle.getFontIndex() < other.getNumberOfFonts());
+    }
+
+    @Test
+    @DisplayName("The styles of a workbook should not keep it reachable")
+    public void testWorkbookIsCollected() throws InterruptedException {
+        WeakReference<XSSFWorkbook> styled = styleWorkbook(styleService);
+
+        for (int attempt = 0; attempt < 50 && styled.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(styled.get());
+        assertEquals(0, styleService.registeredWorkbooks());
+    }
+
+    @Test
+    @DisplayName("A released workbook should be dropped from the registry")
+    public void testRelease() {
+        CellStyle style = styleService.style(workbook, MONEY);
+        assertEquals(style.getIndex(), styleService.style(workbook, MONEY).getIndex());
+
+        styleService.release(workbook);
+
+        assertEquals(0, styleService.registeredWorkbooks());
+    }
+
+    private static WeakReference<XSSFWorkbook> styleWorkbook(XlsxStyleService styleService) {
+        XSSFWorkbook styled = new XSSFWorkbook();
+        Cell cell = styled.createSheet("Styles").createRow(0).createCell(0);
+        styleService.writeValue(cell, 1.0, MONEY);
+        styleService.applyStyle(cell, StyleDescriptor.builder().baseStyle(cell.getCellStyle().getIndex()).build());
+        return new WeakReference<>(styled);
+    }
+
+}
@@ -5,6 +5,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.annotation.XlsColumn;
 import org.jspring.xls.domain.CellCoordinates;
 import org.jspring.xls.domain.CellSearch;
 import org.jspring.xls.domain.SheetInfo;
@@ -14,8 +15,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -186,4 +191,159 @@ public class XlsxTableServiceTest {
         assertEquals(9.5, lastCell.getNumericCellValue(), "Cell value is wrong");
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Write table from an iterator of unknown size, the values being written as they are read")
+    public void populateWorksheetWithData_ShouldWriteTable_GivenIterator() {
+        Iterator<Integer> data = IntStream.rangeClosed(1, 8).iterator();
+
+        xlsxTableService.populateWorksheetWithData(cellSearch, 3, data);
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        assertEquals(3, sheet.getPhysicalNumberOfRows(), "Created table should have 3 rows.");
+        assertEquals(4, sheet.getRow(2).getCell(0).getNumericCellValue(), "Cell value is wrong");
+        assertEquals(2, sheet.getRow(3).getPhysicalNumberOfCells(), "Last row should have 2 cells.");
+        assertEquals(8, sheet.getRow(3).getCell(1).getNumericCellValue(), "Cell value is wrong");
+    }
+
+    @Test
+    @DisplayName("Write table from a lazy stream of mixed values")
+    public void populateWorksheetWithData_ShouldWriteTable_GivenStream() {
+        Stream<Object> data = Stream.iterate(0, i -> i + 1)
+                .<Object>map(i -> i % 2 == 0 ? "v" + i : i)
+                .limit(5);
+
+        xlsxTableService.populateWorksheetWithData(cellSearch, 2, data);
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        assertEquals("v0", sheet.getRow(1).getCell(0).getStringCellValue(), "Cell value is wrong");
+        assertEquals(3, sheet.getRow(2).getCell(1).getNumericCellValue(), "Cell value is wrong");
+        assertEquals("v4", sheet.getRow(3).getCell(0).getStringCellValue(), "Cell value is wrong");
+    }
+
+    @Test
+    @DisplayName("Write a list of records with a header row, one record per row")
+    public void populateWorksheetWithBeans_ShouldWriteOneRowPerRecord_GivenAnnotatedRecords() {
+        List<Order> orders = List.of(
+                new Order("A-1", 3, 12.5, LocalDate.of(2024, 1, 31), "ignored"),
+                new Order("A-2", 1, 7.0, null, "ignored")
+        );
+
+        xlsxTableService.populateWorksheetWithBeans(cellSearch, Order.class, orders);
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        Row header = sheet.getRow(1);
+        assertEquals("Reference", header.getCell(0).getStringCellValue(), "Header is wrong");
+        assertEquals("price", header.getCell(1).getStringCellValue(), "Header is wrong");
+        assertEquals("quantity", header.getCell(2).getStringCellValue(), "Header is wrong");
+        assertEquals(4, header.getPhysicalNumberOfCells(), "Unannotated components should not be written");
+
+        Row first = sheet.getRow(2);
+        assertEquals("A-1", first.getCell(0).getStringCellValue(), "Cell value is wrong");
+        assertEquals(12.5, first.getCell(1).getNumericCellValue(), "Cell value is wrong");
+        assertEquals(3, first.getCell(2).getNumericCellValue(), "Cell value is wrong");
+        assertEquals(LocalDate.of(2024, 1, 31), first.getCell(3).getLocalDateTimeCellValue().toLocalDate(),
+                "Cell value is wrong");
+        assertEquals("", sheet.getRow(3).getCell(3).getStringCellValue(), "Null values should be blank");
+    }
+
+    @Test
+    @DisplayName("Write a list of beans without header, reading annotated fields and getters")
+    public void populateWorksheetWithBeans_ShouldWriteOneRowPerBean_GivenAnnotatedBeans() {
+        xlsxTableService.populateWorksheetWithBeans(
+                cellSearch, Customer.class, List.of(new Customer("Ada", true), new Customer("Bob", false)), false
+        );
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        assertEquals(2, sheet.getPhysicalNumberOfRows(), "Created table should have 2 rows.");
+        Row first = sheet.getRow(1);
+        assertEquals("Ada", first.getCell(0).getStringCellValue(), "Cell value is wrong");
+        assertEquals(true, first.getCell(1).getBooleanCellValue(), "Cell value is wrong");
+        assertEquals("ADA", first.getCell(2).getStringCellValue(), "Cell value is wrong");
+    }
+
+    @Test
+    @DisplayName("Write a list of beans with the annotated properties of their superclass")
+    public void populateWorksheetWithBeans_ShouldWriteInheritedColumns_GivenBeanSubclass() {
+        xlsxTableService.populateWorksheetWithBeans(
+                cellSearch, VipCustomer.class, List.of(new VipCustomer("Ada", true, 3))
+        );
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        Row header = sheet.getRow(1);
+        assertEquals(4, header.getPhysicalNumberOfCells(), "Inherited columns should be written");
+        assertEquals("name", header.getCell(0).getStringCellValue(), "Header is wrong");
+        assertEquals("Code", header.getCell(2).getStringCellValue(), "Header is wrong");
+        assertEquals("level", header.getCell(3).getStringCellValue(), "Header is wrong");
+        Row first = sheet.getRow(2);
+        assertEquals("Ada", first.getCell(0).getStringCellValue(), "Cell value is wrong");
+        assertEquals("ADA", first.getCell(2).getStringCellValue(), "Cell value is wrong");
+        assertEquals(3, first.getCell(3).getNumericCellValue(), "Cell value is wrong");
+    }
+
+    @Test
+    @DisplayName("Write a property annotated on both its field and its getter as a single column")
+    public void populateWorksheetWithBeans_ShouldWriteOneColumnPerProperty_GivenAnnotatedFieldAndGetter() {
+        xlsxTableService.populateWorksheetWithBeans(cellSearch, Product.class, List.of(new Product("P-1")));
+
+        XSSFSheet sheet = cellSearch.sheetInfo().getSheet();
+        Row header = sheet.getRow(1);
+        assertEquals(1, header.getPhysicalNumberOfCells(), "The property should be written once");
+        assertEquals("Sku", header.getCell(0).getStringCellValue(), "The field annotation should win");
+        assertEquals("P-1", sheet.getRow(2).getCell(0).getStringCellValue(), "Cell value is wrong");
+    }
+
+    public record Order(
+            @XlsColumn(header = "Reference", order = 0) String reference,
+            @XlsColumn(order = 2) int quantity,
+            @XlsColumn(order = 1) double price,
+            @XlsColumn(order = 3) LocalDate shipped,
+            String comment
+    ) {
+    }
+
+    public static class Customer {
+        @XlsColumn(order = 0)
+        private final String name;
+        @XlsColumn(order = 1)
+        private final boolean active;
+
+        public Customer(String name, boolean active) {
+            this.name = name;
+            this.active = active;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        @XlsColumn(header = "Code", order = 2)
+        public String getCode() {
+            return name.toUpperCase();
+        }
+    }
+
+    public static class VipCustomer extends Customer {
+        @XlsColumn(order = 3)
+        private final int level;
+
+        public VipCustomer(String name, boolean active, int level) {
+            super(name, active);
+            this.level = level;
+        }
+    }
+
+    public static class Product {
+        @XlsColumn(header = "Sku")
+        private final String sku;
+
+        public Product(String sku) {
+            this.sku = sku;
+        }
+
+        @XlsColumn(header = "Reference")
+        public String getSku() {
+            return sku;
+        }
+    }
+
+}
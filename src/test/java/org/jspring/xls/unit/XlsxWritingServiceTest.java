@@ -0,0 +1,307 @@
+package org.jspring.xls.unit;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspring.xls.enums.WriteMode;
+import org.jspring.xls.service.XlsxReadingService;
+import org.jspring.xls.service.XlsxWritingService;
+import org.jspring.xls.utils.BufferPool;
+import org.jspring.xls.writer.CompressingSXSSFWorkbook;
+import org.jspring.xls.writer.DeflaterPool;
+import org.jspring.xls.writer.ParallelDeflaterOutputStream;
+import org.jspring.xls.writer.ParallelSXSSFWorkbook;
+import org.jspring.xls.writer.SheetRenderPool;
+import org.jspring.xls.writer.ZipCompression;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxWritingServiceTest {
+
+    private static final String TEMPLATE_PATH = "src/main/resources/template/Blank.xls";
+    private static final String SHEET_NAME = "One";
+
+    private final XlsxReadingService readingService = new XlsxReadingService(TEMPLATE_PATH);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test writing a workbook to an output stream")
+    void testWriteToOutputStream() {
+        XlsxWritingService service = new XlsxWritingService(WriteMode.IN_MEMORY, 100, false, new BufferPool(512, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeTo(readingService.readFromTemplate(), out);
+
+        XSSFWorkbook workbook = readingService.readFromByteArray(out.toByteArray());
+        assertEquals("TARGET", workbook.getSheet(SHEET_NAME).getRow(6).getCell(4).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test writing a streaming workbook to a file channel")
+    void testWriteToChannel() throws IOException {
+        XlsxWritingService service = new XlsxWritingService();
+        Path output = tempDir.resolve("channel.xlsx");
+        XSSFWorkbook template = readingService.readFromTemplate();
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            var streamingWorkbook = service.toStreamingWorkbook(template);
+            streamingWorkbook.getSheet(SHEET_NAME).createRow(30).createCell(0).setCellValue("streamed");
+            service.writeTo(streamingWorkbook, channel);
+        }
+
+        XSSFWorkbook workbook = readingService.readFromByteArray(Files.readAllBytes(output));
+        assertEquals("streamed", workbook.getSheet(SHEET_NAME).getRow(30).getCell(0).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test buffers are reused by the pool")
+    void testBufferPoolReuse() {
+        BufferPool pool = new BufferPool(1024, 1);
+
+        byte[] buffer = pool.acquire();
+        pool.release(buffer);
+
+        assertSame(buffer, pool.acquire());
+        assertNotSame(buffer, pool.acquire());
+    }
+
+    @Test
+    @DisplayName("Test writing the sheets of a streaming workbook in parallel gives the same package as sequentially")
+    void testParallelWriteMatchesSequentialWrite() throws IOException {
+        XlsxWritingService sequential = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 1);
+        XlsxWritingService parallel = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 4);
+
+        SXSSFWorkbook parallelWorkbook = multiSheetWorkbook(parallel);
+        assertInstanceOf(ParallelSXSSFWorkbook.class, parallelWorkbook);
+
+        Map<String, byte[]> expected = unzip(sequential.writeAsByteArray(multiSheetWorkbook(sequential)));
+        Map<String, byte[]> actual = unzip(parallel.writeAsByteArray(parallelWorkbook));
+
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()), "Entries should keep their order");
+        expected.forEach((name, content) -> assertArrayEquals(content, actual.get(name), name));
+        XSSFWorkbook workbook = readingService.readFromByteArray(parallel.writeAsByteArray(multiSheetWorkbook(parallel)));
+        assertEquals("TARGET", workbook.getSheet(SHEET_NAME).getRow(6).getCell(4).getStringCellValue());
+        assertEquals("S3-R499", workbook.getSheet("S3").getRow(499).getCell(0).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test compressed packages have the same parts whatever the compression")
+    void testCompressionKeepsParts() throws IOException {
+        XlsxWritingService service = new XlsxWritingService();
+        Map<String, byte[]> expected = unzip(service.writeAsByteArray(multiSheetTemplate()));
+
+        List<ZipCompression> compressions = List.of(
+                ZipCompression.ofLevel(Deflater.NO_COMPRESSION),
+                ZipCompression.ofLevel(Deflater.BEST_SPEED),
+                ZipCompression.ofLevel(Deflater.BEST_COMPRESSION),
+                new ZipCompression(Deflater.BEST_SPEED, 1024, 1, ZipCompression.DEFAULT_BLOCK_SIZE),
+                new ZipCompression(Deflater.DEFAULT_COMPRESSION, 1024, 4, 4096)
+        );
+        for (ZipCompression compression : compressions) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            service.writeTo(multiSheetTemplate(), out, compression);
+
+            Map<String, byte[]> actual = unzip(out.toByteArray());
+            assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()), compression.toString());
+            expected.forEach((name, content) -> assertArrayEquals(content, actual.get(name), name));
+        }
+    }
+
+    @Test
+    @DisplayName("Test small parts are stored and large parts deflated")
+    void testStoredThreshold() throws IOException {
+        XlsxWritingService service = new XlsxWritingService(WriteMode.IN_MEMORY, 100, false, new BufferPool(), 1,
+                new ZipCompression(Deflater.BEST_SPEED, 2048, 2, 4096));
+
+        byte[] written = service.writeAsByteArray(multiSheetTemplate());
+
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(written))) {
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                int expectedMethod = entry.getSize() < 2048 ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                assertEquals(expectedMethod, entry.getMethod(), entry.getName());
+            }
+        }
+        XSSFWorkbook workbook = readingService.readFromByteArray(written);
+        assertEquals("S3-R499", workbook.getSheet("S3").getRow(499).getCell(0).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test streaming workbooks compress their sheets in parallel blocks")
+    void testStreamingParallelCompression() throws IOException {
+        ZipCompression compression = new ZipCompression(Deflater.BEST_SPEED, 0, 4, 4096);
+        XlsxWritingService sequential = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 1);
+        XlsxWritingService compressing = new XlsxWritingService(
+                WriteMode.STREAMING, 100, false, new BufferPool(), 1, compression);
+        XlsxWritingService parallel = new XlsxWritingService(
+                WriteMode.STREAMING, 100, false, new BufferPool(), 4, compression);
+
+        SXSSFWorkbook compressingWorkbook = multiSheetWorkbook(compressing);
+        assertInstanceOf(CompressingSXSSFWorkbook.class, compressingWorkbook);
+
+        Map<String, byte[]> expected = unzip(sequential.writeAsByteArray(multiSheetWorkbook(sequential)));
+        for (byte[] written : List.of(
+                compressing.writeAsByteArray(compressingWorkbook),
+                parallel.writeAsByteArray(multiSheetWorkbook(parallel))
+        )) {
+            Map<String, byte[]> actual = unzip(written);
+            assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()));
+            expected.forEach((name, content) -> assertArrayEquals(content, actual.get(name), name));
+        }
+    }
+
+    @Test
+    @DisplayName("Test streaming workbooks store their small sheets and deflate the others")
+    void testStreamingStoredThreshold() throws IOException {
+        XlsxWritingService service = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 4,
+                new ZipCompression(Deflater.BEST_SPEED, 2048, 2, 4096));
+        SXSSFWorkbook workbook = multiSheetWorkbook(service);
+        workbook.createSheet("Empty");
+
+        byte[] written = service.writeAsByteArray(workbook);
+
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(written))) {
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                int expectedMethod = entry.getSize() < 2048 ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                assertEquals(expectedMethod, entry.getMethod(), entry.getName());
+            }
+            assertEquals(ZipEntry.STORED, zip.getEntry("xl/worksheets/sheet5.xml").getMethod());
+        }
+        XSSFWorkbook read = readingService.readFromByteArray(written);
+        assertEquals("S3-R499", read.getSheet("S3").getRow(499).getCell(0).getStringCellValue());
+    }
+
+    @Test
+    @DisplayName("Test the blocks deflated in parallel inflate to the written data")
+    void testParallelDeflaterRoundTrip() throws IOException {
+        byte[] input = repetitiveData();
+
+        byte[] compressed = deflateInParallel(input, DeflaterPool.common());
+
+        assertArrayEquals(input, inflate(compressed));
+        assertTrue(compressed.length < input.length / 3);
+    }
+
+    @Test
+    @DisplayName("Test the streams share the deflater pool without stopping it")
+    void testSharedDeflaterPool() throws IOException {
+        byte[] input = repetitiveData();
+
+        try (DeflaterPool pool = new DeflaterPool(1)) {
+            // A single thread deflates the blocks of both streams
+            assertArrayEquals(input, inflate(deflateInParallel(input, pool)));
+            assertArrayEquals(input, inflate(deflateInParallel(input, pool)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel streaming writes share the render pool without stopping it")
+    void testSharedSheetRenderPool() throws IOException {
+        XlsxWritingService sequential = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 1);
+        Map<String, byte[]> expected = unzip(sequential.writeAsByteArray(multiSheetWorkbook(sequential)));
+
+        try (SheetRenderPool renderPool = new SheetRenderPool(1)) {
+            // A single thread renders the sheets of both writes, each one keeping up to 4 sheets pending
+            XlsxWritingService parallel = new XlsxWritingService(WriteMode.STREAMING, 100, false, new BufferPool(), 4,
+                    ZipCompression.DEFAULT, DeflaterPool.common(), renderPool);
+            for (int write = 0; write < 2; write++) {
+                Map<String, byte[]> actual = unzip(parallel.writeAsByteArray(multiSheetWorkbook(parallel)));
+                assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()));
+                expected.forEach((name, content) -> assertArrayEquals(content, actual.get(name), name));
+            }
+        }
+    }
+
+    /**
+     * Repetitive data with matches across the block boundaries.
+     */
+    private static byte[] repetitiveData() {
+        Random random = new Random(42);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < 20_000; i++) {
+            data.writeBytes(("<row r=\"" + i + "\"><c t=\"n\"><v>" + random.nextInt(1000) + "</v></c></row>").getBytes());
+        }
+        return data.toByteArray();
+    }
+
+    private static byte[] deflateInParallel(byte[] input, DeflaterPool pool) throws IOException {
+        // Written in uneven chunks
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelDeflaterOutputStream out = new ParallelDeflaterOutputStream(compressed, 6, 3, 10_000, pool)) {
+            for (int off = 0; off < input.length; off += 777) {
+                out.write(input, off, Math.min(777, input.length - off));
+            }
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed), new Inflater(true))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private SXSSFWorkbook multiSheetWorkbook(XlsxWritingService service) {
+        // Inline strings, the order of a shared strings table depends on the order in which the sheets are flushed
+        SXSSFWorkbook workbook = service.toStreamingWorkbook(readingService.readFromTemplate(), false);
+        workbook.getSheet(SHEET_NAME).createRow(30).createCell(0).setCellValue("streamed");
+        for (int sheet = 1; sheet <= 3; sheet++) {
+            var rows = workbook.createSheet("S" + sheet);
+            for (int row = 0; row < 500; row++) {
+                var cells = rows.createRow(row);
+                cells.createCell(0).setCellValue("S" + sheet + "-R" + row);
+                cells.createCell(1).setCellValue(row * sheet);
+            }
+        }
+        return workbook;
+    }
+
+    private XSSFWorkbook multiSheetTemplate() {
+        XSSFWorkbook workbook = readingService.readFromTemplate();
+        for (int sheet = 1; sheet <= 3; sheet++) {
+            var rows = workbook.createSheet("S" + sheet);
+            for (int row = 0; row < 500; row++) {
+                var cells = rows.createRow(row);
+                cells.createCell(0).setCellValue("S" + sheet + "-R" + row);
+                cells.createCell(1).setCellValue(row * sheet);
+            }
+        }
+        return workbook;
+    }
+
+    private static Map<String, byte[]> unzip(byte[] packageBytes) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(packageBytes))) {
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntriesInPhysicalOrder())) {
+                try (InputStream content = zip.getInputStream(entry)) {
+                    entries.put(entry.getName(), content.readAllBytes());
+                }
+            }
+        }
+        return entries;
+    }
+}